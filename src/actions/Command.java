@@ -1,10 +1,16 @@
 package actions;
 
 import common.Constants;
+import entertainment.Movie;
+import entertainment.Serial;
+import entertainment.Video;
+import entertainment.VideoType;
 import fileio.ActionInputData;
 import fileio.Writer;
+import main.CommandLog;
 import main.Database;
 import org.json.simple.JSONObject;
+import user.User;
 
 import java.io.IOException;
 
@@ -21,6 +27,20 @@ public final class Command {
     public static JSONObject execute(final Database database,
                                      final ActionInputData actionInput,
                                      final Writer writer) {
+        CommandLog log = database.getCommandLog();
+
+        // Comanda este scrisa in jurnal inainte sa modifice baza de date; daca nu poate fi
+        // scrisa, nu este executata
+        if (log != null && isLogged(actionInput.getType()) && canChange(database, actionInput)) {
+            try {
+                log.append(actionInput);
+            } catch (IOException e) {
+                e.printStackTrace();
+
+                return logFailure(actionInput, writer);
+            }
+        }
+
         return switch (actionInput.getType()) {
             case Constants.VIEW_COMMAND -> executeViewCommand(database, actionInput, writer);
             case Constants.FAVORITE -> executeFavoriteCommand(database, actionInput, writer);
@@ -29,6 +49,56 @@ public final class Command {
         };
     }
 
+    private static boolean isLogged(final String type) {
+        return type.equals(Constants.VIEW_COMMAND) || type.equals(Constants.FAVORITE)
+                || type.equals(Constants.RATING_COMMAND);
+    }
+
+    /**
+     * Checks if a command refers to an existing user, video and, for a rating of a serial,
+     * season. The other commands do not change the database, so they are not logged
+     * @param database    database
+     * @param actionInput action input data
+     * @return if the command can change the database
+     */
+    private static boolean canChange(final Database database,
+                                     final ActionInputData actionInput) {
+        Video video = database.getVideo(actionInput.getTitle());
+        int user = database.getUserIds().getId(actionInput.getUsername());
+
+        if (video == null || !database.getUsers().containsKey(user)) {
+            return false;
+        }
+
+        if (actionInput.getType().equals(Constants.RATING_COMMAND)
+                && video.getType() == VideoType.SERIAL) {
+            int seasonNumber = actionInput.getSeasonNumber() - 1;
+
+            return seasonNumber >= 0 && seasonNumber < ((Serial) video).getSeasons().size();
+        }
+
+        return true;
+    }
+
+    /**
+     * Builds the result of a command that has not been executed because it could not be
+     * appended to the command log
+     * @param actionInput action input data
+     * @param output      output writer
+     * @return JsonObject
+     */
+    private static JSONObject logFailure(final ActionInputData actionInput,
+                                         final Writer output) {
+        try {
+            return output.writeFile(actionInput.getActionId(), "message", "error -> "
+                    + actionInput.getTitle() + " could not be logged");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return new JSONObject();
+    }
+
     /**
      * Executes a view command
      * @param database    database
@@ -41,24 +111,23 @@ public final class Command {
                                                  final Writer output) {
         int actionId = actionInput.getActionId();
         String title = actionInput.getTitle();
-        String user = actionInput.getUsername();
+        int user = database.getUserIds().getId(actionInput.getUsername());
+        User viewer = database.getUsers().get(user);
+        Video video = database.getVideo(title);
 
-        boolean titleExists = database.getMovies().containsKey(title)
-                || database.getSerials().containsKey(title);
+        // Un utilizator inexistent (NOT_FOUND) nu poate vedea video-ul
+        boolean canBeViewed = video != null && viewer != null;
         int views = 0;
 
-        if (titleExists) {
-            if (database.getMovies().containsKey(title)) {
-                database.getMovies().get(title).addViewer(user);
-                views = database.getMovies().get(title).getUsersViews(user);
-            } else if (database.getSerials().containsKey(title)) {
-                database.getSerials().get(title).addViewer(user);
-                views = database.getSerials().get(title).getUsersViews(user);
-            }
+        if (canBeViewed) {
+            viewer.addViewedVideo(video.getId());
+            video.addViewer(user);
+            database.updateVideoStatistics(video);
+            views = video.getUsersViews(user);
         }
 
         try {
-            if (titleExists) {
+            if (canBeViewed) {
                 return output.writeFile(
                         actionId,
                         "message",
@@ -89,26 +158,23 @@ public final class Command {
                                               final Writer output) {
         int actionId = actionInput.getActionId();
         String title = actionInput.getTitle();
-        String username = actionInput.getUsername();
+        int user = database.getUserIds().getId(actionInput.getUsername());
+        Video video = database.getVideo(title);
 
-        boolean titleExists = database.getMovies().containsKey(title)
-                || database.getSerials().containsKey(title);
+        boolean titleExists = video != null;
 
         if (!titleExists) {
             return new JSONObject();
         }
 
+        int videoId = video.getId();
         boolean hasBeenFavorited = false;
-        boolean wasAlreadyFavorited = database.getUsers().get(username).hasFavoriteMovie(title);
-        boolean hasBeenViewedByUser =
-                (database.getMovies().containsKey(title)
-                        && database.getMovies().get(title).hasBeenViewedByUser(username))
-                        || (database.getSerials().containsKey(title)
-                        && database.getSerials().get(title).hasBeenViewedByUser(username));
+        boolean wasAlreadyFavorited = database.getUsers().get(user).hasFavoriteMovie(videoId);
+        boolean hasBeenViewedByUser = video.hasBeenViewedByUser(user);
 
         if (titleExists && (hasBeenViewedByUser || wasAlreadyFavorited)) {
-            if (!wasAlreadyFavorited) {
-                database.getUsers().get(username).addFavorite(title);
+            if (!wasAlreadyFavorited && database.getUsers().get(user).addFavorite(videoId)) {
+                database.addFavorite(videoId);
             }
             hasBeenFavorited = true;
         }
@@ -152,12 +218,20 @@ public final class Command {
                                             final ActionInputData actionInput,
                                             final Writer output) {
         int actionId = actionInput.getActionId();
-        String user = actionInput.getUsername();
+        String username = actionInput.getUsername();
+        int user = database.getUserIds().getId(username);
         String title = actionInput.getTitle();
+        Video video = database.getVideo(title);
 
-        if (database.getMovies().containsKey(title)) {
-            if (!database.getMovies().get(title).existsRatingFromUser(user)) {
-                if (!database.getMovies().get(title).hasBeenViewedByUser(user)) {
+        if (video == null) {
+            return new JSONObject();
+        }
+
+        if (video.getType() == VideoType.MOVIE) {
+            Movie movie = (Movie) video;
+
+            if (!movie.existsRatingFromUser(user)) {
+                if (!movie.hasBeenViewedByUser(user)) {
                     try {
                         return output.writeFile(actionId,
                                 "message",
@@ -168,7 +242,8 @@ public final class Command {
                         e.printStackTrace();
                     }
                 }
-                database.getMovies().get(title).addRatingForUser(user, actionInput.getGrade());
+                movie.addRatingForUser(user, actionInput.getGrade());
+                database.updateVideoStatistics(movie);
                 try {
                     return output.writeFile(actionId,
                             "message",
@@ -177,7 +252,7 @@ public final class Command {
                                     + " was rated with "
                                     + String.format("%.1f", actionInput.getGrade())
                                     + " by "
-                                    + user);
+                                    + username);
                 } catch (IOException e) {
                     e.printStackTrace();
                 }
@@ -195,8 +270,10 @@ public final class Command {
         }
 
         int seasonNumber = actionInput.getSeasonNumber() - 1;
-        if (database.getSerials().containsKey(title)) {
-            if (!database.getSerials().get(title).hasBeenViewedByUser(user)) {
+        if (video.getType() == VideoType.SERIAL) {
+            Serial serial = (Serial) video;
+
+            if (!serial.hasBeenViewedByUser(user)) {
                 try {
                     return output.writeFile(actionId,
                             "message",
@@ -207,9 +284,9 @@ public final class Command {
                     e.printStackTrace();
                 }
             }
-            if (!database.getSerials().get(title).getSeason(seasonNumber).isRatedByUser(user)) {
-                database.getSerials().get(title).getSeason(seasonNumber).addRatingByUser(user,
-                        actionInput.getGrade());
+            if (!serial.getSeason(seasonNumber).isRatedByUser(user)) {
+                serial.getSeason(seasonNumber).addRatingByUser(user, actionInput.getGrade());
+                database.updateVideoStatistics(serial);
                 try {
                     return output.writeFile(actionId,
                             "message",
@@ -218,7 +295,7 @@ public final class Command {
                                     + " was rated with "
                                     + String.format("%.1f", actionInput.getGrade())
                                     + " by "
-                                    + user);
+                                    + username);
                 } catch (IOException e) {
                     e.printStackTrace();
                 }
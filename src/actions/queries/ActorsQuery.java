@@ -3,21 +3,19 @@ package actions.queries;
 import actor.Actor;
 import common.Constants;
 import common.EntityWithSortingCriteria;
-import entertainment.Movie;
-import entertainment.Serial;
+import common.ResultSink;
+import common.TopKSelector;
+import common.RoaringBitmap;
 import fileio.ActionInputData;
 import fileio.Writer;
+import main.CastIndex;
 import main.Database;
 import org.json.simple.JSONObject;
 import utils.Utils;
 
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.List;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.stream.Collectors;
+import java.util.PrimitiveIterator;
 
 public final class ActorsQuery {
     private ActorsQuery() { }
@@ -52,62 +50,28 @@ public final class ActorsQuery {
     private static JSONObject executeAverage(final Database database,
                                              final ActionInputData actionInput,
                                              final Writer writer) {
-        HashMap<String, Double> ratingForUser = new HashMap<>();
-        HashMap<String, Integer> noRatingsForUser = new HashMap<>();
-
-        ArrayList<EntityWithSortingCriteria> actorsWithRating = new ArrayList<>();
-
-        for (Movie movie : database.getMovies().values()) {
-            for (String actorName : movie.getCast()) {
-                if (movie.getRating() != 0) {
-                    if (ratingForUser.containsKey(actorName)) {
-                        ratingForUser.put(actorName,
-                                ratingForUser.get(actorName) + movie.getRating());
-                        noRatingsForUser.put(actorName, noRatingsForUser.get(actorName) + 1);
-                    } else {
-                        ratingForUser.put(actorName, movie.getRating());
-                        noRatingsForUser.put(actorName, 1);
-                    }
-                }
-            }
-        }
+        TopKSelector<EntityWithSortingCriteria> actorsWithRating = new TopKSelector<>(
+                actionInput.getNumber(), Utils.sortingOrder(actionInput.getSortType()));
 
-        for (Serial serial : database.getSerials().values()) {
-            for (String actorName : serial.getCast()) {
-                if (serial.getRating() != 0) {
-                    if (ratingForUser.containsKey(actorName)) {
-                        ratingForUser.put(actorName,
-                                ratingForUser.get(actorName) + serial.getRating());
-                        noRatingsForUser.put(actorName, noRatingsForUser.get(actorName) + 1);
-                    } else {
-                        ratingForUser.put(actorName, serial.getRating());
-                        noRatingsForUser.put(actorName, 1);
-                    }
-                }
-            }
-        }
+        CastIndex castIndex = database.getCastIndex();
+        PrimitiveIterator.OfInt iterator = castIndex.getRatedActors().iterator();
 
-        for (String name : ratingForUser.keySet()) {
-            actorsWithRating.add(new EntityWithSortingCriteria(name,
-                    ratingForUser.get(name) / (double) noRatingsForUser.get(name)));
-        }
+        while (iterator.hasNext()) {
+            int id = iterator.nextInt();
 
-        if (actionInput.getSortType().equals(Constants.ASC_SORTING)) {
-            Collections.sort(actorsWithRating);
-        }
-        if (actionInput.getSortType().equals(Constants.DESC_SORTING)) {
-            Collections.sort(actorsWithRating, Collections.reverseOrder());
+            actorsWithRating.add(new EntityWithSortingCriteria(
+                    database.getActorIds().getName(id),
+                    castIndex.getAverage(id),
+                    database.getActorIds().getRank(id)));
         }
 
+        ResultSink sink = database.getResultSink().begin("Query result: ");
+        actorsWithRating.writeTo(sink);
+
         try {
             return writer.writeFile(actionInput.getActionId(),
                     "message",
-                    "Query result: "
-                            + actorsWithRating
-                            .stream()
-                            .limit(actionInput.getNumber())
-                            .collect(Collectors.toList())
-            );
+                    sink.finish());
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -128,39 +92,29 @@ public final class ActorsQuery {
                                             final Writer writer) {
         List<String> awardsList = actionInput.getFilters().get(Constants.AWARDS_FILTER_POSITION);
 
-        List<EntityWithSortingCriteria> actorsResult = new ArrayList<>();
-
-        for (Actor actor : database.getActors().values()) {
-            boolean hasAwards = true;
-            for (String award : awardsList) {
-                if (!actor.getAwards().containsKey(Utils.stringToAwards(award))) {
-                    hasAwards = false;
-                    break;
-                }
-            }
-
-            if (hasAwards) {
-                actorsResult.add(new EntityWithSortingCriteria(actor.getName(),
-                        (double) (actor.getAwardsCount())));
-            }
-        }
+        TopKSelector<EntityWithSortingCriteria> actorsResult = new TopKSelector<>(
+                actionInput.getNumber(), Utils.sortingOrder(actionInput.getSortType()));
 
-        if (actionInput.getSortType().equals(Constants.ASC_SORTING)) {
-            Collections.sort(actorsResult);
+        RoaringBitmap candidates = database.getActorsBitmap();
+        for (String award : awardsList) {
+            candidates = candidates.and(database.getActorsWithAward(Utils.stringToAwards(award)));
         }
-        if (actionInput.getSortType().equals(Constants.DESC_SORTING)) {
-            Collections.sort(actorsResult, Collections.reverseOrder());
+
+        PrimitiveIterator.OfInt iterator = candidates.iterator();
+        while (iterator.hasNext()) {
+            Actor actor = database.getActors().get(iterator.nextInt());
+
+            actorsResult.add(new EntityWithSortingCriteria(actor.getName(),
+                    actor.getAwardsCount(), database.getActorIds().getRank(actor.getId())));
         }
 
+        ResultSink sink = database.getResultSink().begin("Query result: ");
+        actorsResult.writeTo(sink);
+
         try {
             return writer.writeFile(actionInput.getActionId(),
                     "message",
-                    "Query result: "
-                            + actorsResult
-                            .stream()
-                            .limit(actionInput.getNumber())
-                            .collect(Collectors.toList())
-            );
+                    sink.finish());
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -181,43 +135,29 @@ public final class ActorsQuery {
                                                        final Writer writer) {
         List<String> keywords = actionInput.getFilters().get(Constants.WORDS_FILTER_POSITION);
 
-        List<EntityWithSortingCriteria> actorsResult = new ArrayList<>();
-
-        for (Actor actor : database.getActors().values()) {
-            boolean containsKeywords = true;
-
-            for (String keyword : keywords) {
-                if (!Arrays.asList(actor
-                        .getCareerDescription()
-                        .toLowerCase()
-                        .split("\\W+"))
-                        .contains(keyword)) {
-                    containsKeywords = false;
-                    break;
-                }
-            }
-
-            if (containsKeywords) {
-                actorsResult.add(new EntityWithSortingCriteria(actor.getName(), (double) 0));
-            }
-        }
+        TopKSelector<EntityWithSortingCriteria> actorsResult = new TopKSelector<>(
+                actionInput.getNumber(), Utils.sortingOrder(actionInput.getSortType()));
 
-        if (actionInput.getSortType().equals(Constants.ASC_SORTING)) {
-            Collections.sort(actorsResult);
+        RoaringBitmap candidates = database.getActorsBitmap();
+        for (String keyword : keywords) {
+            candidates = candidates.and(database.getActorsWithTerm(keyword));
         }
-        if (actionInput.getSortType().equals(Constants.DESC_SORTING)) {
-            Collections.sort(actorsResult, Collections.reverseOrder());
+
+        PrimitiveIterator.OfInt iterator = candidates.iterator();
+        while (iterator.hasNext()) {
+            Actor actor = database.getActors().get(iterator.nextInt());
+
+            actorsResult.add(new EntityWithSortingCriteria(actor.getName(), 0,
+                    database.getActorIds().getRank(actor.getId())));
         }
 
+        ResultSink sink = database.getResultSink().begin("Query result: ");
+        actorsResult.writeTo(sink);
+
         try {
             return writer.writeFile(actionInput.getActionId(),
                     "message",
-                    "Query result: "
-                            + actorsResult
-                            .stream()
-                            .limit(actionInput.getNumber())
-                            .collect(Collectors.toList())
-            );
+                    sink.finish());
         } catch (IOException e) {
             e.printStackTrace();
         }
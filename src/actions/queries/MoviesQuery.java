@@ -2,20 +2,19 @@ package actions.queries;
 
 import common.Constants;
 import common.EntityWithSortingCriteria;
+import common.ResultSink;
+import common.TopKSelector;
+import common.RoaringBitmap;
 import entertainment.Genre;
-import entertainment.Movie;
 import fileio.ActionInputData;
 import fileio.Writer;
+import main.ColumnarCatalog;
 import main.Database;
 import org.json.simple.JSONObject;
-import user.User;
 import utils.Utils;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.PrimitiveIterator;
 
 public final class MoviesQuery {
     private MoviesQuery() { }
@@ -50,8 +49,6 @@ public final class MoviesQuery {
     private static JSONObject executeRating(final Database database,
                                             final ActionInputData actionInput,
                                             final Writer writer) {
-        List<EntityWithSortingCriteria> moviesResult = new ArrayList<>();
-
         boolean hasYearFilter = true;
         boolean hasGenreFilter = true;
 
@@ -80,36 +77,17 @@ public final class MoviesQuery {
             hasGenreFilter = false;
         }
 
-        for (Movie movie : database.getMovies().values()) {
-            if (hasYearFilter && movie.getReleaseYear() != releaseYear) {
-                continue;
-            }
-            if (hasGenreFilter && !movie.getGenres().contains(genre)) {
-                continue;
-            }
-            if (movie.getRating() <= 0) {
-                continue;
-            }
-
-            moviesResult.add(new EntityWithSortingCriteria(movie.getTitle(), movie.getRating()));
-        }
-
-        if (actionInput.getSortType().equals(Constants.ASC_SORTING)) {
-            Collections.sort(moviesResult);
-        }
-        if (actionInput.getSortType().equals(Constants.DESC_SORTING)) {
-            Collections.sort(moviesResult, Collections.reverseOrder());
-        }
+        RoaringBitmap candidates = database.getMoviesIndex()
+                .select(hasYearFilter, releaseYear, hasGenreFilter, genre);
+        ResultSink moviesResult = database.getResultSink().begin("Query result: ");
+        database.getMoviesIndex().getBestRated()
+                .select(candidates, actionInput.getNumber(), actionInput.getSortType(),
+                        moviesResult);
 
         try {
             return writer.writeFile(actionInput.getActionId(),
                     "message",
-                    "Query result: "
-                            + moviesResult
-                            .stream()
-                            .limit(actionInput.getNumber())
-                            .collect(Collectors.toList())
-            );
+                    moviesResult.finish());
         } catch (IOException e) {
             e.printStackTrace();
 
@@ -120,8 +98,6 @@ public final class MoviesQuery {
     private static JSONObject executeFavorite(final Database database,
                                               final ActionInputData actionInput,
                                               final Writer writer) {
-        List<EntityWithSortingCriteria> moviesResult = new ArrayList<>();
-
         boolean hasYearFilter = true;
         boolean hasGenreFilter = true;
 
@@ -150,44 +126,17 @@ public final class MoviesQuery {
             hasGenreFilter = false;
         }
 
-        for (Movie movie : database.getMovies().values()) {
-            if (hasYearFilter && movie.getReleaseYear() != releaseYear) {
-                continue;
-            }
-            if (hasGenreFilter && !movie.getGenres().contains(genre)) {
-                continue;
-            }
-
-            int occurences = 0;
-
-            for (User user : database.getUsers().values()) {
-                if (user.hasFavoriteMovie(movie.getTitle())) {
-                    occurences++;
-                }
-            }
-
-            if (occurences > 0) {
-                moviesResult.add(new EntityWithSortingCriteria(movie.getTitle(),
-                        (double) occurences));
-            }
-        }
-
-        if (actionInput.getSortType().equals(Constants.ASC_SORTING)) {
-            Collections.sort(moviesResult);
-        }
-        if (actionInput.getSortType().equals(Constants.DESC_SORTING)) {
-            Collections.sort(moviesResult, Collections.reverseOrder());
-        }
+        RoaringBitmap candidates = database.getMoviesIndex()
+                .select(hasYearFilter, releaseYear, hasGenreFilter, genre);
+        ResultSink moviesResult = database.getResultSink().begin("Query result: ");
+        database.getMoviesIndex().getMostFavorite()
+                .select(candidates, actionInput.getNumber(), actionInput.getSortType(),
+                        moviesResult);
 
         try {
             return writer.writeFile(actionInput.getActionId(),
                     "message",
-                    "Query result: "
-                            + moviesResult
-                            .stream()
-                            .limit(actionInput.getNumber())
-                            .collect(Collectors.toList())
-            );
+                    moviesResult.finish());
         } catch (IOException e) {
             e.printStackTrace();
 
@@ -198,7 +147,8 @@ public final class MoviesQuery {
     private static JSONObject executeLongest(final Database database,
                                              final ActionInputData actionInput,
                                              final Writer writer) {
-        List<EntityWithSortingCriteria> moviesResult = new ArrayList<>();
+        TopKSelector<EntityWithSortingCriteria> moviesResult = new TopKSelector<>(
+                actionInput.getNumber(), Utils.sortingOrder(actionInput.getSortType()));
 
         boolean hasYearFilter = true;
         boolean hasGenreFilter = true;
@@ -228,34 +178,25 @@ public final class MoviesQuery {
             hasGenreFilter = false;
         }
 
-        for (Movie movie : database.getMovies().values()) {
-            if (hasYearFilter && movie.getReleaseYear() != releaseYear) {
-                continue;
-            }
-            if (hasGenreFilter && !movie.getGenres().contains(genre)) {
-                continue;
-            }
+        ColumnarCatalog catalog = database.getCatalog();
+        PrimitiveIterator.OfInt iterator = database.getMoviesIndex()
+                .select(hasYearFilter, releaseYear, hasGenreFilter, genre)
+                .iterator();
 
-            moviesResult.add(new EntityWithSortingCriteria(movie.getTitle(),
-                    (double) movie.getDuration()));
-        }
+        while (iterator.hasNext()) {
+            int id = iterator.nextInt();
 
-        if (actionInput.getSortType().equals(Constants.ASC_SORTING)) {
-            Collections.sort(moviesResult);
-        }
-        if (actionInput.getSortType().equals(Constants.DESC_SORTING)) {
-            Collections.sort(moviesResult, Collections.reverseOrder());
+            moviesResult.add(new EntityWithSortingCriteria(catalog.getTitle(id),
+                    catalog.getDuration(id), database.getVideoIds().getRank(id)));
         }
 
+        ResultSink sink = database.getResultSink().begin("Query result: ");
+        moviesResult.writeTo(sink);
+
         try {
             return writer.writeFile(actionInput.getActionId(),
                     "message",
-                    "Query result: "
-                            + moviesResult
-                            .stream()
-                            .limit(actionInput.getNumber())
-                            .collect(Collectors.toList())
-            );
+                    sink.finish());
         } catch (IOException e) {
             e.printStackTrace();
 
@@ -266,8 +207,6 @@ public final class MoviesQuery {
     private static JSONObject executeMostViewed(final Database database,
                                          final ActionInputData actionInput,
                                                        final Writer writer) {
-        List<EntityWithSortingCriteria> moviesResult = new ArrayList<>();
-
         boolean hasYearFilter = true;
         boolean hasGenreFilter = true;
 
@@ -296,37 +235,17 @@ public final class MoviesQuery {
             hasGenreFilter = false;
         }
 
-        for (Movie movie : database.getMovies().values()) {
-            if (hasYearFilter && movie.getReleaseYear() != releaseYear) {
-                continue;
-            }
-            if (hasGenreFilter && !movie.getGenres().contains(genre)) {
-                continue;
-            }
-            if (movie.getViewsCount() <= 0) {
-                continue;
-            }
-
-            moviesResult.add(new EntityWithSortingCriteria(movie.getTitle(),
-                    (double) movie.getViewsCount()));
-        }
-
-        if (actionInput.getSortType().equals(Constants.ASC_SORTING)) {
-            Collections.sort(moviesResult);
-        }
-        if (actionInput.getSortType().equals(Constants.DESC_SORTING)) {
-            Collections.sort(moviesResult, Collections.reverseOrder());
-        }
+        RoaringBitmap candidates = database.getMoviesIndex()
+                .select(hasYearFilter, releaseYear, hasGenreFilter, genre);
+        ResultSink moviesResult = database.getResultSink().begin("Query result: ");
+        database.getMoviesIndex().getMostViewed()
+                .select(candidates, actionInput.getNumber(), actionInput.getSortType(),
+                        moviesResult);
 
         try {
             return writer.writeFile(actionInput.getActionId(),
                     "message",
-                    "Query result: "
-                            + moviesResult
-                            .stream()
-                            .limit(actionInput.getNumber())
-                            .collect(Collectors.toList())
-            );
+                    moviesResult.finish());
         } catch (IOException e) {
             e.printStackTrace();
 
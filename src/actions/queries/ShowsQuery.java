@@ -2,20 +2,19 @@ package actions.queries;
 
 import common.Constants;
 import common.EntityWithSortingCriteria;
+import common.ResultSink;
+import common.TopKSelector;
+import common.RoaringBitmap;
 import entertainment.Genre;
-import entertainment.Serial;
 import fileio.ActionInputData;
 import fileio.Writer;
+import main.ColumnarCatalog;
 import main.Database;
 import org.json.simple.JSONObject;
-import user.User;
 import utils.Utils;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.PrimitiveIterator;
 
 public final class ShowsQuery {
     private ShowsQuery() { }
@@ -51,8 +50,6 @@ public final class ShowsQuery {
     private static JSONObject executeRating(final Database database,
                                             final ActionInputData actionInput,
                                             final Writer writer) {
-        List<EntityWithSortingCriteria> showsResult = new ArrayList<>();
-
         boolean hasYearFilter = true;
         boolean hasGenreFilter = true;
 
@@ -81,36 +78,17 @@ public final class ShowsQuery {
             hasGenreFilter = false;
         }
 
-        for (Serial serial : database.getSerials().values()) {
-            if (hasYearFilter && serial.getReleaseYear() != releaseYear) {
-                continue;
-            }
-            if (hasGenreFilter && !serial.getGenres().contains(genre)) {
-                continue;
-            }
-            if (serial.getRating() <= 0) {
-                continue;
-            }
-
-            showsResult.add(new EntityWithSortingCriteria(serial.getTitle(), serial.getRating()));
-        }
-
-        if (actionInput.getSortType().equals(Constants.ASC_SORTING)) {
-            Collections.sort(showsResult);
-        }
-        if (actionInput.getSortType().equals(Constants.DESC_SORTING)) {
-            Collections.sort(showsResult, Collections.reverseOrder());
-        }
+        RoaringBitmap candidates = database.getSerialsIndex()
+                .select(hasYearFilter, releaseYear, hasGenreFilter, genre);
+        ResultSink showsResult = database.getResultSink().begin("Query result: ");
+        database.getSerialsIndex().getBestRated()
+                .select(candidates, actionInput.getNumber(), actionInput.getSortType(),
+                        showsResult);
 
         try {
             return writer.writeFile(actionInput.getActionId(),
                     "message",
-                    "Query result: "
-                            + showsResult
-                            .stream()
-                            .limit(actionInput.getNumber())
-                            .collect(Collectors.toList())
-            );
+                    showsResult.finish());
         } catch (IOException e) {
             e.printStackTrace();
 
@@ -121,8 +99,6 @@ public final class ShowsQuery {
     private static JSONObject executeFavorite(final Database database,
                                               final ActionInputData actionInput,
                                               final Writer writer) {
-        List<EntityWithSortingCriteria> showsResult = new ArrayList<>();
-
         boolean hasYearFilter = true;
         boolean hasGenreFilter = true;
 
@@ -151,44 +127,17 @@ public final class ShowsQuery {
             hasGenreFilter = false;
         }
 
-        for (Serial serial : database.getSerials().values()) {
-            if (hasYearFilter && serial.getReleaseYear() != releaseYear) {
-                continue;
-            }
-            if (hasGenreFilter && !serial.getGenres().contains(genre)) {
-                continue;
-            }
-
-            int occurences = 0;
-
-            for (User user : database.getUsers().values()) {
-                if (user.hasFavoriteMovie(serial.getTitle())) {
-                    occurences++;
-                }
-            }
-
-            if (occurences > 0) {
-                showsResult.add(new EntityWithSortingCriteria(serial.getTitle(),
-                        (double) occurences));
-            }
-        }
-
-        if (actionInput.getSortType().equals(Constants.ASC_SORTING)) {
-            Collections.sort(showsResult);
-        }
-        if (actionInput.getSortType().equals(Constants.DESC_SORTING)) {
-            Collections.sort(showsResult, Collections.reverseOrder());
-        }
+        RoaringBitmap candidates = database.getSerialsIndex()
+                .select(hasYearFilter, releaseYear, hasGenreFilter, genre);
+        ResultSink showsResult = database.getResultSink().begin("Query result: ");
+        database.getSerialsIndex().getMostFavorite()
+                .select(candidates, actionInput.getNumber(), actionInput.getSortType(),
+                        showsResult);
 
         try {
             return writer.writeFile(actionInput.getActionId(),
                     "message",
-                    "Query result: "
-                            + showsResult
-                            .stream()
-                            .limit(actionInput.getNumber())
-                            .collect(Collectors.toList())
-            );
+                    showsResult.finish());
         } catch (IOException e) {
             e.printStackTrace();
 
@@ -199,7 +148,8 @@ public final class ShowsQuery {
     private static JSONObject executeLongest(final Database database,
                                              final ActionInputData actionInput,
                                              final Writer writer) {
-        List<EntityWithSortingCriteria> showsResult = new ArrayList<>();
+        TopKSelector<EntityWithSortingCriteria> showsResult = new TopKSelector<>(
+                actionInput.getNumber(), Utils.sortingOrder(actionInput.getSortType()));
 
         boolean hasYearFilter = true;
         boolean hasGenreFilter = true;
@@ -229,34 +179,25 @@ public final class ShowsQuery {
             hasGenreFilter = false;
         }
 
-        for (Serial serial : database.getSerials().values()) {
-            if (hasYearFilter && serial.getReleaseYear() != releaseYear) {
-                continue;
-            }
-            if (hasGenreFilter && !serial.getGenres().contains(genre)) {
-                continue;
-            }
+        ColumnarCatalog catalog = database.getCatalog();
+        PrimitiveIterator.OfInt iterator = database.getSerialsIndex()
+                .select(hasYearFilter, releaseYear, hasGenreFilter, genre)
+                .iterator();
 
-            showsResult.add(new EntityWithSortingCriteria(serial.getTitle(),
-                    (double) serial.getDuration()));
-        }
+        while (iterator.hasNext()) {
+            int id = iterator.nextInt();
 
-        if (actionInput.getSortType().equals(Constants.ASC_SORTING)) {
-            Collections.sort(showsResult);
-        }
-        if (actionInput.getSortType().equals(Constants.DESC_SORTING)) {
-            Collections.sort(showsResult, Collections.reverseOrder());
+            showsResult.add(new EntityWithSortingCriteria(catalog.getTitle(id),
+                    catalog.getDuration(id), database.getVideoIds().getRank(id)));
         }
 
+        ResultSink sink = database.getResultSink().begin("Query result: ");
+        showsResult.writeTo(sink);
+
         try {
             return writer.writeFile(actionInput.getActionId(),
                     "message",
-                    "Query result: "
-                            + showsResult
-                            .stream()
-                            .limit(actionInput.getNumber())
-                            .collect(Collectors.toList())
-            );
+                    sink.finish());
         } catch (IOException e) {
             e.printStackTrace();
 
@@ -267,8 +208,6 @@ public final class ShowsQuery {
     private static JSONObject executeMostViewed(final Database database,
                                                 final ActionInputData actionInput,
                                                 final Writer writer) {
-        List<EntityWithSortingCriteria> showsResult = new ArrayList<>();
-
         boolean hasYearFilter = true;
         boolean hasGenreFilter = true;
 
@@ -297,37 +236,17 @@ public final class ShowsQuery {
             hasGenreFilter = false;
         }
 
-        for (Serial serial : database.getSerials().values()) {
-            if (hasYearFilter && serial.getReleaseYear() != releaseYear) {
-                continue;
-            }
-            if (hasGenreFilter && !serial.getGenres().contains(genre)) {
-                continue;
-            }
-            if (serial.getViewsCount() <= 0) {
-                continue;
-            }
-
-            showsResult.add(new EntityWithSortingCriteria(serial.getTitle(),
-                    (double) serial.getViewsCount()));
-        }
-
-        if (actionInput.getSortType().equals(Constants.ASC_SORTING)) {
-            Collections.sort(showsResult);
-        }
-        if (actionInput.getSortType().equals(Constants.DESC_SORTING)) {
-            Collections.sort(showsResult, Collections.reverseOrder());
-        }
+        RoaringBitmap candidates = database.getSerialsIndex()
+                .select(hasYearFilter, releaseYear, hasGenreFilter, genre);
+        ResultSink showsResult = database.getResultSink().begin("Query result: ");
+        database.getSerialsIndex().getMostViewed()
+                .select(candidates, actionInput.getNumber(), actionInput.getSortType(),
+                        showsResult);
 
         try {
             return writer.writeFile(actionInput.getActionId(),
                     "message",
-                    "Query result: "
-                            + showsResult
-                            .stream()
-                            .limit(actionInput.getNumber())
-                            .collect(Collectors.toList())
-            );
+                    showsResult.finish());
         } catch (IOException e) {
             e.printStackTrace();
 
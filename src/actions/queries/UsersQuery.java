@@ -2,6 +2,8 @@ package actions.queries;
 
 import common.Constants;
 import common.EntityWithSortingCriteria;
+import common.ResultSink;
+import common.TopKSelector;
 import entertainment.Movie;
 import entertainment.Season;
 import entertainment.Serial;
@@ -9,14 +11,11 @@ import fileio.ActionInputData;
 import fileio.Writer;
 import main.Database;
 import org.json.simple.JSONObject;
+import utils.Utils;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public final class UsersQuery {
     private UsersQuery() { }
@@ -43,11 +42,12 @@ public final class UsersQuery {
     private static JSONObject executeNumRatings(final Database database,
                                                 final ActionInputData actionInput,
                                                 final Writer writer) {
-        HashMap<String, Integer> usersWithTotalRatings = new HashMap<>();
-        List<EntityWithSortingCriteria> usersResult = new ArrayList<>();
+        HashMap<Integer, Integer> usersWithTotalRatings = new HashMap<>();
+        TopKSelector<EntityWithSortingCriteria> usersResult = new TopKSelector<>(
+                actionInput.getNumber(), Utils.sortingOrder(actionInput.getSortType()));
 
         for (Movie movie : database.getMovies().values()) {
-            for (String user : movie.getRatingsForUsers().keySet()) {
+            for (Integer user : movie.getRatingsForUsers().keySet()) {
                 if (usersWithTotalRatings.containsKey(user)) {
                     usersWithTotalRatings.put(user, usersWithTotalRatings.get(user) + 1);
                 } else {
@@ -58,7 +58,7 @@ public final class UsersQuery {
 
         for (Serial serial : database.getSerials().values()) {
             for (Season season : serial.getSeasons()) {
-                for (String user : season.getRatingsForUsers().keySet()) {
+                for (Integer user : season.getRatingsForUsers().keySet()) {
                     if (usersWithTotalRatings.containsKey(user)) {
                         usersWithTotalRatings.put(user, usersWithTotalRatings.get(user) + 1);
                     } else {
@@ -68,26 +68,20 @@ public final class UsersQuery {
             }
         }
 
-        for (Map.Entry<String, Integer> pair : usersWithTotalRatings.entrySet()) {
-            usersResult.add(new EntityWithSortingCriteria(pair.getKey(), (double) pair.getValue()));
+        for (Map.Entry<Integer, Integer> pair : usersWithTotalRatings.entrySet()) {
+            usersResult.add(new EntityWithSortingCriteria(
+                    database.getUserIds().getName(pair.getKey()),
+                    pair.getValue(),
+                    database.getUserIds().getRank(pair.getKey())));
         }
 
-        if (actionInput.getSortType().equals(Constants.ASC_SORTING)) {
-            Collections.sort(usersResult);
-        }
-        if (actionInput.getSortType().equals(Constants.DESC_SORTING)) {
-            Collections.sort(usersResult, Collections.reverseOrder());
-        }
+        ResultSink sink = database.getResultSink().begin("Query result: ");
+        usersResult.writeTo(sink);
 
         try {
             return writer.writeFile(actionInput.getActionId(),
                     "message",
-                    "Query result: "
-                            + usersResult
-                            .stream()
-                            .limit(actionInput.getNumber())
-                            .collect(Collectors.toList())
-            );
+                    sink.finish());
         } catch (IOException e) {
             e.printStackTrace();
 
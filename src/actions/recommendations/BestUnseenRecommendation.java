@@ -1,8 +1,10 @@
 package actions.recommendations;
 
 import common.EntityWithTwoSortingCriterias;
+import common.RoaringBitmap;
 import fileio.ActionInputData;
 import fileio.Writer;
+import main.ColumnarCatalog;
 import main.Database;
 import org.json.simple.JSONObject;
 
@@ -10,6 +12,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.PrimitiveIterator;
 
 public final class BestUnseenRecommendation {
     private BestUnseenRecommendation() { }
@@ -27,22 +30,18 @@ public final class BestUnseenRecommendation {
                                      final Writer writer) {
         List<EntityWithTwoSortingCriterias> results = new ArrayList<>();
 
-        for (String name : database.getVideosOrder()) {
-            if (database.getMovies().containsKey(name)
-                    && !database.getMovies().get(name)
-                    .hasBeenViewedByUser(actionInput.getUsername())) {
-                results.add(new EntityWithTwoSortingCriterias(name,
-                        database.getMovies().get(name).getRating(),
-                        database.getVideosOrder().size() - (double) results.size()));
-            }
+        int user = database.getUserIds().getId(actionInput.getUsername());
 
-            if (database.getSerials().containsKey(name)
-                    && !database.getSerials().get(name)
-                    .hasBeenViewedByUser(actionInput.getUsername())) {
-                results.add(new EntityWithTwoSortingCriterias(name,
-                        database.getSerials().get(name).getRating(),
-                        database.getVideosOrder().size() - (double) results.size()));
-            }
+        RoaringBitmap unseenVideos = RecommendationUtils.unseenVideos(database, user);
+        PrimitiveIterator.OfInt iterator = unseenVideos.iterator();
+        ColumnarCatalog catalog = database.getCatalog();
+
+        while (iterator.hasNext()) {
+            int id = iterator.nextInt();
+
+            results.add(new EntityWithTwoSortingCriterias(catalog.getTitle(id),
+                    catalog.getRating(id),
+                    database.getVideosOrder().size() - (double) results.size()));
         }
 
         Collections.sort(results, Collections.reverseOrder());
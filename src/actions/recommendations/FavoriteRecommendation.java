@@ -1,17 +1,18 @@
 package actions.recommendations;
 
 import common.EntityWithTwoSortingCriterias;
+import common.RoaringBitmap;
 import fileio.ActionInputData;
 import fileio.Writer;
 import main.Database;
 import org.json.simple.JSONObject;
-import user.User;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Map;
 import java.util.List;
+import java.util.PrimitiveIterator;
 
 public final class FavoriteRecommendation {
     private FavoriteRecommendation() { }
@@ -27,53 +28,34 @@ public final class FavoriteRecommendation {
     public static JSONObject execute(final Database database,
                                      final ActionInputData actionInput,
                                      final Writer writer) {
-        if (!database.getUsers().get(actionInput.getUsername()).isPremium()) {
+        int user = database.getUserIds().getId(actionInput.getUsername());
+
+        if (!database.getUsers().get(user).isPremium()) {
             return RecommendationUtils.recommendationFailure(actionInput,
                     writer,
                     "FavoriteRecommendation");
         }
 
-        HashMap<String, Integer> favoriteVideosOccurrences = new HashMap<>();
+        Map<Integer, Integer> favoriteVideosOccurrences = database.getFavoritesCount();
         List<EntityWithTwoSortingCriterias> resultList = new ArrayList<>();
 
-        String user = actionInput.getUsername();
+        RoaringBitmap unseenVideos = RecommendationUtils.unseenVideos(database, user);
+        PrimitiveIterator.OfInt iterator = unseenVideos.iterator();
 
-        for (User username : database.getUsers().values()) {
-            for (String title : username.getFavoriteVideos()) {
-                if (favoriteVideosOccurrences.containsKey(title)) {
-                    favoriteVideosOccurrences.put(title, favoriteVideosOccurrences.get(title) + 1);
-                } else {
-                    favoriteVideosOccurrences.put(title, 1);
-                }
-            }
-        }
+        while (iterator.hasNext()) {
+            int id = iterator.nextInt();
 
-        for (String title : database.getVideosOrder()) {
-            if (!favoriteVideosOccurrences.containsKey(title)) {
+            if (!favoriteVideosOccurrences.containsKey(id)) {
                 continue;
             }
 
-            if (database.getMovies().containsKey(title)) {
-                if (!database.getMovies().get(title).hasBeenViewedByUser(user)) {
-                    resultList.add(
-                            new EntityWithTwoSortingCriterias(
-                                    title,
-                                    (double) favoriteVideosOccurrences.get(title),
-                                    database.getVideosOrder().size() - (double) resultList.size()
-                            )
-                    );
-                }
-            } else if (database.getSerials().containsKey(title)) {
-                if (!database.getSerials().get(title).hasBeenViewedByUser(user)) {
-                    resultList.add(
-                            new EntityWithTwoSortingCriterias(
-                                    title,
-                                    (double) favoriteVideosOccurrences.get(title),
-                                    database.getVideosOrder().size() - (double) resultList.size()
-                            )
-                    );
-                }
-            }
+            resultList.add(
+                    new EntityWithTwoSortingCriterias(
+                            database.getCatalog().getTitle(id),
+                            (double) favoriteVideosOccurrences.get(id),
+                            database.getVideosOrder().size() - (double) resultList.size()
+                    )
+            );
         }
 
         Collections.sort(resultList, Collections.reverseOrder());
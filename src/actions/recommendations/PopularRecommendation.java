@@ -1,11 +1,11 @@
 package actions.recommendations;
 
 import common.EntityWithSortingCriteria;
+import common.RoaringBitmap;
 import entertainment.Genre;
-import entertainment.Movie;
-import entertainment.Serial;
 import fileio.ActionInputData;
 import fileio.Writer;
+import main.ColumnarCatalog;
 import main.Database;
 import org.json.simple.JSONObject;
 import utils.Utils;
@@ -15,6 +15,7 @@ import java.util.HashMap;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.PrimitiveIterator;
 import java.util.Collections;
 
 public final class PopularRecommendation {
@@ -31,7 +32,9 @@ public final class PopularRecommendation {
     public static JSONObject execute(final Database database,
                                      final ActionInputData actionInput,
                                      final Writer writer) {
-        if (!database.getUsers().get(actionInput.getUsername()).isPremium()) {
+        int user = database.getUserIds().getId(actionInput.getUsername());
+
+        if (!database.getUsers().get(user).isPremium()) {
             return RecommendationUtils.recommendationFailure(actionInput,
                     writer,
                     "PopularRecommendation");
@@ -40,24 +43,11 @@ public final class PopularRecommendation {
         HashMap<Genre, Integer> genresOccurrences = new HashMap<>();
         List<EntityWithSortingCriteria> genresPopularity = new ArrayList<>();
 
-        for (Movie movie : database.getMovies().values()) {
-            for (Genre genre : movie.getGenres()) {
-                if (genresOccurrences.containsKey(genre)) {
-                    genresOccurrences.put(genre, genresOccurrences.get(genre) + 1);
-                } else {
-                    genresOccurrences.put(genre, 1);
-                }
-            }
-        }
+        ColumnarCatalog catalog = database.getCatalog();
+        PrimitiveIterator.OfInt videos = database.getVideosBitmap().iterator();
 
-        for (Serial serial : database.getSerials().values()) {
-            for (Genre genre : serial.getGenres()) {
-                if (genresOccurrences.containsKey(genre)) {
-                    genresOccurrences.put(genre, genresOccurrences.get(genre) + 1);
-                } else {
-                    genresOccurrences.put(genre, 1);
-                }
-            }
+        while (videos.hasNext()) {
+            countGenres(genresOccurrences, catalog, videos.nextInt());
         }
 
         for (Map.Entry<Genre, Integer> pair : genresOccurrences.entrySet()) {
@@ -67,31 +57,20 @@ public final class PopularRecommendation {
 
         Collections.sort(genresPopularity, Collections.reverseOrder());
 
+        RoaringBitmap unseenVideos = RecommendationUtils.unseenVideos(database, user);
+
         for (EntityWithSortingCriteria sorter : genresPopularity) {
             Genre genre = Utils.stringToGenre(sorter.toString());
+            PrimitiveIterator.OfInt iterator = unseenVideos.iterator();
 
-            for (String title : database.getVideosOrder()) {
-                if (database.getMovies().containsKey(title)
-                        && database.getMovies().get(title).getGenres().contains(genre)
-                        && !database.getMovies().get(title)
-                        .hasBeenViewedByUser(actionInput.getUsername())) {
-                    try {
-                        return writer.writeFile(actionInput.getActionId(),
-                                "message",
-                                "PopularRecommendation result: " + title);
-                    } catch (IOException e) {
-                        e.printStackTrace();
+            while (iterator.hasNext()) {
+                int id = iterator.nextInt();
 
-                        return new JSONObject();
-                    }
-                } else if (database.getSerials().containsKey(title)
-                        && database.getSerials().get(title).getGenres().contains(genre)
-                        && !database.getSerials().get(title)
-                        .hasBeenViewedByUser(actionInput.getUsername())) {
+                if (catalog.hasGenre(id, genre)) {
                     try {
                         return writer.writeFile(actionInput.getActionId(),
                                 "message",
-                                "PopularRecommendation result: " + title);
+                                "PopularRecommendation result: " + catalog.getTitle(id));
                     } catch (IOException e) {
                         e.printStackTrace();
 
@@ -107,4 +86,20 @@ public final class PopularRecommendation {
 
         return new JSONObject();
     }
+
+    /**
+     * Adds the genres of a video to the occurrences map
+     *
+     * @param genresOccurrences occurrences of each genre
+     * @param catalog           videos catalog
+     * @param id                given video id
+     */
+    private static void countGenres(final HashMap<Genre, Integer> genresOccurrences,
+                                    final ColumnarCatalog catalog, final int id) {
+        for (Genre genre : Genre.values()) {
+            if (catalog.hasGenre(id, genre)) {
+                genresOccurrences.merge(genre, 1, Integer::sum);
+            }
+        }
+    }
 }
@@ -1,8 +1,11 @@
 package actions.recommendations;
 
+import common.RoaringBitmap;
 import fileio.ActionInputData;
 import fileio.Writer;
+import main.Database;
 import org.json.simple.JSONObject;
+import user.User;
 
 import java.io.IOException;
 
@@ -30,4 +33,21 @@ final class RecommendationUtils {
             return new JSONObject();
         }
     }
+
+    /**
+     * Retrieves the ids of the videos that have not been viewed by the given user
+     *
+     * @param database database
+     * @param userId   given user
+     * @return bitmap of unseen videos ids, ordered as in the database
+     */
+    static RoaringBitmap unseenVideos(final Database database, final int userId) {
+        User user = database.getUsers().get(userId);
+
+        if (user == null) {
+            return database.getVideosBitmap().andNot(new RoaringBitmap());
+        }
+
+        return database.getVideosBitmap().andNot(user.getViewedVideos());
+    }
 }
@@ -1,11 +1,12 @@
 package actions.recommendations;
 
 import common.EntityWithSortingCriteria;
+import common.ResultSink;
+import common.RoaringBitmap;
 import entertainment.Genre;
-import entertainment.Movie;
-import entertainment.Serial;
 import fileio.ActionInputData;
 import fileio.Writer;
+import main.ColumnarCatalog;
 import main.Database;
 import org.json.simple.JSONObject;
 import utils.Utils;
@@ -14,6 +15,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.PrimitiveIterator;
 
 public final class SearchRecommendation {
     private SearchRecommendation() { }
@@ -29,7 +31,9 @@ public final class SearchRecommendation {
     public static JSONObject execute(final Database database,
                                      final ActionInputData actionInput,
                                      final Writer writer) {
-        if (!database.getUsers().get(actionInput.getUsername()).isPremium()) {
+        int user = database.getUserIds().getId(actionInput.getUsername());
+
+        if (!database.getUsers().get(user).isPremium()) {
             return RecommendationUtils.recommendationFailure(actionInput,
                     writer,
                     "SearchRecommendation");
@@ -38,22 +42,19 @@ public final class SearchRecommendation {
         List<EntityWithSortingCriteria> resultList = new ArrayList<>();
 
         Genre genre = Utils.stringToGenre(actionInput.getGenre());
-        String user = actionInput.getUsername();
 
-        for (Movie movie : database.getMovies().values()) {
-            if (!movie.hasBeenViewedByUser(user) && movie.getGenres().contains(genre)) {
-                resultList.add(new EntityWithSortingCriteria(
-                        movie.getTitle(),
-                        movie.getRating()
-                ));
-            }
-        }
+        RoaringBitmap unseenVideos = RecommendationUtils.unseenVideos(database, user);
+        PrimitiveIterator.OfInt iterator = unseenVideos.iterator();
+        ColumnarCatalog catalog = database.getCatalog();
+
+        while (iterator.hasNext()) {
+            int id = iterator.nextInt();
 
-        for (Serial serial : database.getSerials().values()) {
-            if (!serial.hasBeenViewedByUser(user) && serial.getGenres().contains(genre)) {
+            if (catalog.hasGenre(id, genre)) {
                 resultList.add(new EntityWithSortingCriteria(
-                        serial.getTitle(),
-                        serial.getRating()
+                        catalog.getTitle(id),
+                        catalog.getRating(id),
+                        database.getVideoIds().getRank(id)
                 ));
             }
         }
@@ -66,10 +67,15 @@ public final class SearchRecommendation {
                     "SearchRecommendation");
         }
 
+        ResultSink sink = database.getResultSink().begin("SearchRecommendation result: ");
+        for (EntityWithSortingCriteria entity : resultList) {
+            sink.add(entity);
+        }
+
         try {
             return writer.writeFile(actionInput.getActionId(),
                     "message",
-                    "SearchRecommendation result: " + resultList);
+                    sink.finish());
         } catch (IOException e) {
             e.printStackTrace();
 
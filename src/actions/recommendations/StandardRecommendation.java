@@ -1,6 +1,6 @@
 package actions.recommendations;
 
-import entertainment.Serial;
+import common.RoaringBitmap;
 import fileio.ActionInputData;
 import fileio.Writer;
 import main.Database;
@@ -23,27 +23,12 @@ public final class StandardRecommendation {
                                final ActionInputData actionInput,
                                final Writer writer) {
         String result = "";
+        int user = database.getUserIds().getId(actionInput.getUsername());
 
-        for (String title : database.getVideosOrder()) {
-            if (database.getMovies().containsKey(title)
-                    && !database.getMovies().get(title)
-                    .hasBeenViewedByUser(actionInput.getUsername())) {
-                result = title;
-                break;
-            } else if (database.getSerials().containsKey(title)
-                    && !database.getSerials().get(title)
-                    .hasBeenViewedByUser(actionInput.getUsername())) {
-                result = title;
-                break;
-            }
-        }
-
-        if (result.isEmpty()) {
-            for (Serial serial : database.getSerials().values()) {
-                if (!serial.hasBeenViewedByUser(actionInput.getUsername())) {
-                    result = serial.getTitle();
-                }
-            }
+        // Id-urile videoclipurilor respecta ordinea din baza de date
+        RoaringBitmap unseenVideos = RecommendationUtils.unseenVideos(database, user);
+        if (!unseenVideos.isEmpty()) {
+            result = database.getCatalog().getTitle(unseenVideos.iterator().nextInt());
         }
 
         if (!result.isEmpty()) {
@@ -3,28 +3,39 @@ package actor;
 import fileio.ActorInputData;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 
 public class Actor {
+  private int id;
   private String name;
   private String careerDescription;
-  private HashMap<ActorsAwards, Integer> awards;
+  private EnumMap<ActorsAwards, Integer> awards;
+  private int awardsCount;
   private ArrayList<String> filmography;
 
   public Actor(
+      final int id,
       final String name,
       final String careerDescription,
       final Map<ActorsAwards, Integer> awards,
       final ArrayList<String> filmography) {
+    this.id = id;
     this.name = name;
     this.careerDescription = careerDescription;
-    this.awards = new HashMap<>(awards);
+    this.awards = new EnumMap<>(ActorsAwards.class);
+    for (Map.Entry<ActorsAwards, Integer> award : awards.entrySet()) {
+      if (award.getKey() != null) {
+        this.awards.put(award.getKey(), award.getValue());
+      }
+      this.awardsCount += award.getValue();
+    }
     this.filmography = new ArrayList<>(filmography);
   }
 
-  public Actor(final ActorInputData actorInput) {
+  public Actor(final int id, final ActorInputData actorInput) {
     this(
+        id,
         actorInput.getName(),
         actorInput.getCareerDescription(),
         actorInput.getAwards(),
@@ -35,7 +46,7 @@ public class Actor {
    * Retrieves actor's awards <Award, Count>
    * @return awards map
    */
-  public HashMap<ActorsAwards, Integer> getAwards() {
+  public EnumMap<ActorsAwards, Integer> getAwards() {
     return awards;
   }
 
@@ -43,8 +54,16 @@ public class Actor {
    * Retrieves the number of actor's awards
    * @return number of awards
    */
-  public Integer getAwardsCount() {
-    return awards.values().stream().mapToInt(Integer::intValue).sum();
+  public int getAwardsCount() {
+    return awardsCount;
+  }
+
+  /**
+   * Retrieves actor's id
+   * @return actor's id
+   */
+  public int getId() {
+    return id;
   }
 
   /**
@@ -62,4 +81,12 @@ public class Actor {
   public String getCareerDescription() {
     return careerDescription;
   }
+
+  /**
+   * Retrieves actor's filmography
+   * @return list of titles
+   */
+  public ArrayList<String> getFilmography() {
+    return filmography;
+  }
 }
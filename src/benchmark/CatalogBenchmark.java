@@ -0,0 +1,140 @@
+package benchmark;
+
+import common.Constants;
+import entertainment.Movie;
+import entertainment.Serial;
+import entertainment.Video;
+import fileio.ActionInputData;
+import fileio.Input;
+import fileio.InputLoader;
+import fileio.UserInputData;
+import main.Database;
+import main.VideosDB;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compares resolving titles through the separate movies and serials maps (containsKey + get on
+ * each), as the action handlers used to, with Database.getVideo(title), which resolves them
+ * once through the catalog index, on the large_test inputs
+ */
+public final class CatalogBenchmark {
+    private static final int ROUNDS = 2_000;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * for coding style
+     */
+    private CatalogBenchmark() {
+    }
+
+    /**
+     * @param args unused
+     */
+    public static void main(final String[] args) {
+        File[] files = Objects.requireNonNull(new File(Constants.TESTS_PATH).listFiles());
+        Arrays.sort(files);
+
+        for (File file : files) {
+            if (file.getName().contains(Constants.LARGE)) {
+                run(file);
+            }
+        }
+    }
+
+    private static void run(final File file) {
+        Input input = new InputLoader(file.getAbsolutePath()).readData();
+        VideosDB videosDB = new VideosDB();
+        videosDB.readDB(input);
+        Database database = videosDB.getDatabase();
+
+        // Vechea organizare: cate un map pentru filme si seriale, indexat dupa titlu
+        HashMap<String, Movie> movies = new HashMap<>();
+        HashMap<String, Serial> serials = new HashMap<>();
+        for (Movie movie : database.getMovies().values()) {
+            movies.put(movie.getTitle(), movie);
+        }
+        for (Serial serial : database.getSerials().values()) {
+            serials.put(serial.getTitle(), serial);
+        }
+
+        List<String> titles = referencedTitles(input);
+
+        // Incalzim JIT-ul pentru ambele variante
+        for (int i = 0; i < ROUNDS; i++) {
+            for (String title : titles) {
+                resolveSeparately(movies, serials, title);
+                database.getVideo(title);
+            }
+        }
+
+        long oldFound = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            for (String title : titles) {
+                if (resolveSeparately(movies, serials, title) != null) {
+                    oldFound++;
+                }
+            }
+        }
+        long oldTime = System.nanoTime() - start;
+
+        long newFound = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            for (String title : titles) {
+                if (database.getVideo(title) != null) {
+                    newFound++;
+                }
+            }
+        }
+        long newTime = System.nanoTime() - start;
+
+        System.out.println(file.getName() + ": " + titles.size() + " title lookups x " + ROUNDS);
+        System.out.printf("  movies/serials maps: %8.2f ms (found %d)%n",
+                oldTime / NANOS_PER_MILLI, oldFound);
+        System.out.printf("  catalog index:       %8.2f ms (found %d, speedup %.1fx)%n",
+                newTime / NANOS_PER_MILLI, newFound, (double) oldTime / newTime);
+    }
+
+    /**
+     * Titles touched by the commands and by the users' histories and favorites
+     */
+    private static List<String> referencedTitles(final Input input) {
+        List<String> titles = new ArrayList<>();
+
+        for (UserInputData user : input.getUsers()) {
+            titles.addAll(user.getHistory().keySet());
+            titles.addAll(user.getFavoriteMovies());
+        }
+        for (ActionInputData action : input.getCommands()) {
+            if (action.getTitle() != null) {
+                titles.add(action.getTitle());
+            }
+        }
+
+        return titles;
+    }
+
+    /**
+     * Resolves a title the way the action handlers used to
+     */
+    private static Video resolveSeparately(final HashMap<String, Movie> movies,
+                                           final HashMap<String, Serial> serials,
+                                           final String title) {
+        if (movies.containsKey(title)) {
+            return movies.get(title);
+        }
+
+        if (serials.containsKey(title)) {
+            return serials.get(title);
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,165 @@
+package benchmark;
+
+import actions.Command;
+import common.Constants;
+import fileio.ActionInputData;
+import fileio.Input;
+import fileio.JacksonInputLoader;
+import fileio.Writer;
+import main.CommandLog;
+import main.Database;
+import main.VideosDB;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Measures the throughput of the view, favorite and rating commands from the large_test inputs
+ * without a command log and with the log forced to disk after every command, after groups of
+ * commands and after a delay. The logs are written in the given directory, or in the default
+ * temporary directory
+ */
+public final class CommandLogBenchmark {
+    /**
+     * Number of commands executed for every configuration
+     */
+    private static final int COMMANDS = 20_000;
+    private static final int[] GROUP_SIZES = {1, 16, 256, 4096};
+    private static final long GROUP_DELAY_MILLIS = 10;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * for coding style
+     */
+    private CommandLogBenchmark() {
+    }
+
+    /**
+     * @param args optional directory for the logs
+     * @throws IOException in case of exceptions to reading / writing the logs
+     */
+    public static void main(final String[] args) throws IOException {
+        Path directory = args.length > 0 ? Paths.get(args[0])
+                : Paths.get(System.getProperty("java.io.tmpdir"));
+
+        File[] files = Objects.requireNonNull(new File(Constants.TESTS_PATH).listFiles());
+        Arrays.sort(files);
+
+        List<File> inputs = new ArrayList<>();
+        for (File file : files) {
+            if (file.getName().contains(Constants.LARGE)) {
+                inputs.add(file);
+            }
+        }
+
+        Path output = Files.createTempFile(directory, "results", ".json");
+        Writer writer = new Writer(output.toString(), true);
+
+        try {
+            System.out.println(COMMANDS + " commands from " + inputs.size() + " inputs, logs in "
+                    + directory);
+
+            // Prima runda incalzeste JIT-ul si nu este afisata
+            for (int round = 0; round < 2; round++) {
+                boolean report = round == 1;
+
+                run(inputs, writer, null, 0, 0, report);
+                for (int groupSize : GROUP_SIZES) {
+                    run(inputs, writer, directory, groupSize, 0, report);
+                }
+                run(inputs, writer, directory, Integer.MAX_VALUE, GROUP_DELAY_MILLIS, report);
+            }
+        } finally {
+            writer.closeJSON(null);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    /**
+     * Executes the commands of every input, again and again, on a database read from the
+     * input, so that COMMANDS commands are executed in total
+     */
+    private static void run(final List<File> inputs, final Writer writer, final Path directory,
+                            final int groupSize, final long groupDelayMillis,
+                            final boolean report) throws IOException {
+        int perInput = (COMMANDS + inputs.size() - 1) / inputs.size();
+        long time = 0;
+        long commits = 0;
+        long logSize = 0;
+        long replayTime = 0;
+        long executed = 0;
+
+        for (File file : inputs) {
+            Input input = new JacksonInputLoader(file.getAbsolutePath()).readData();
+            VideosDB videosDB = new VideosDB();
+            videosDB.readDB(input);
+            Database database = videosDB.getDatabase();
+
+            List<ActionInputData> commands = new ArrayList<>();
+            for (ActionInputData action : input.getCommands()) {
+                if (action.getActionType().equals(Constants.COMMAND)) {
+                    commands.add(action);
+                }
+            }
+
+            Path logPath = directory == null ? null
+                    : Files.createTempFile(directory, "commands", ".log");
+            CommandLog log = logPath == null ? null
+                    : CommandLog.open(logPath, database, writer, groupSize, groupDelayMillis);
+
+            long start = System.nanoTime();
+            // Comenzile repetate sunt respinse de verificari, dar sunt scrise in jurnal
+            for (int i = 0; i < perInput; i++) {
+                Command.execute(database, commands.get(i % commands.size()), writer);
+            }
+            if (log != null) {
+                log.close();
+                commits += log.getCommits();
+            }
+            time += System.nanoTime() - start;
+            executed += perInput;
+
+            if (logPath != null) {
+                logSize += Files.size(logPath);
+
+                // Repornire: baza de date citita din nou, apoi jurnalul
+                VideosDB restarted = new VideosDB();
+                restarted.readDB(new JacksonInputLoader(file.getAbsolutePath()).readData());
+                start = System.nanoTime();
+                CommandLog.open(logPath, restarted.getDatabase(), writer, 1, 0).close();
+                replayTime += System.nanoTime() - start;
+
+                Files.delete(logPath);
+            }
+        }
+
+        if (!report) {
+            return;
+        }
+
+        String name;
+        if (directory == null) {
+            name = "no log";
+        } else if (groupDelayMillis > 0) {
+            name = "every " + groupDelayMillis + " ms";
+        } else {
+            name = "every " + groupSize + " records";
+        }
+
+        System.out.printf("  %-18s %10.0f commands/s, %6d fsyncs", name,
+                executed * NANOS_PER_SECOND / time, commits);
+        if (directory != null) {
+            System.out.printf(", log %d KB, replay %.2f ms", logSize >> 10,
+                    replayTime / NANOS_PER_MILLI);
+        }
+        System.out.println();
+    }
+}
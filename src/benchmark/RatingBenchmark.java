@@ -0,0 +1,98 @@
+package benchmark;
+
+import entertainment.Movie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares reading the movies' ratings from the running aggregates with recomputing them from
+ * the ratings given by every user, on a catalog with many ratings
+ */
+public final class RatingBenchmark {
+    private static final int MOVIES = 2_000;
+    private static final int RATINGS_PER_MOVIE = 1_000;
+    private static final int QUERIES = 200;
+    private static final int MAX_GRADE = 10;
+    private static final int RELEASE_YEAR = 2000;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * for coding style
+     */
+    private RatingBenchmark() {
+    }
+
+    /**
+     * @param args unused
+     */
+    public static void main(final String[] args) {
+        List<Movie> catalog = buildCatalog();
+
+        // Incalzim JIT-ul pentru ambele variante
+        recomputeAll(catalog);
+        readAll(catalog);
+
+        long start = System.nanoTime();
+        double recomputed = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            recomputed += recomputeAll(catalog);
+        }
+        long recomputeTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        double read = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            read += readAll(catalog);
+        }
+        long readTime = System.nanoTime() - start;
+
+        System.out.println("Movies: " + MOVIES + ", ratings per movie: " + RATINGS_PER_MOVIE
+                + ", queries: " + QUERIES);
+        System.out.printf("Recompute from ratings: %.2f ms (checksum %.4f)%n",
+                recomputeTime / NANOS_PER_MILLI, recomputed);
+        System.out.printf("Running aggregates:     %.2f ms (checksum %.4f)%n",
+                readTime / NANOS_PER_MILLI, read);
+    }
+
+    private static List<Movie> buildCatalog() {
+        Random random = new Random(0);
+        List<Movie> catalog = new ArrayList<>();
+
+        for (int i = 0; i < MOVIES; i++) {
+            Movie movie = new Movie(i, "movie" + i, RELEASE_YEAR,
+                    new ArrayList<>(), new ArrayList<>(), 1);
+
+            for (int j = 0; j < RATINGS_PER_MOVIE; j++) {
+                movie.addRatingForUser(j, (double) (random.nextInt(MAX_GRADE) + 1));
+            }
+
+            catalog.add(movie);
+        }
+
+        return catalog;
+    }
+
+    private static double recomputeAll(final List<Movie> catalog) {
+        double total = 0;
+
+        for (Movie movie : catalog) {
+            total += movie.getRatingsForUsers().values().stream()
+                    .mapToDouble(Double::doubleValue).sum()
+                    / movie.getRatingsForUsers().size();
+        }
+
+        return total;
+    }
+
+    private static double readAll(final List<Movie> catalog) {
+        double total = 0;
+
+        for (Movie movie : catalog) {
+            total += movie.getRating();
+        }
+
+        return total;
+    }
+}
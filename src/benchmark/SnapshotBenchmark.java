@@ -0,0 +1,217 @@
+package benchmark;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import common.Constants;
+import fileio.Input;
+import fileio.JacksonInputLoader;
+import main.Database;
+import main.DatabaseSnapshot;
+import main.VideosDB;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Compares building the database from the JSON input (parsing and reading it) with restoring
+ * it from a binary snapshot, on the input files given as arguments or, without arguments, on
+ * the large_test inputs and on a large input generated from the first of them
+ */
+public final class SnapshotBenchmark {
+    private static final int ROUNDS = 10;
+    /**
+     * Size of the generated input: users, videos in every user's history and favorites (taken
+     * from the history), view commands for every user
+     */
+    private static final int GENERATED_USERS = 200_000;
+    private static final int HISTORY_SIZE = 6;
+    private static final int FAVORITES_SIZE = 3;
+    private static final int MAX_VIEWS = 3;
+    private static final double COMMANDS_PER_USER = 1.5;
+    private static final long SEED = 42;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double BYTES_PER_MB = 1 << 20;
+
+    private static long checksum;
+
+    /**
+     * for coding style
+     */
+    private SnapshotBenchmark() {
+    }
+
+    /**
+     * @param args input files; the large_test inputs and a generated input if there are none
+     * @throws IOException in case of exceptions to reading / writing the snapshot
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length > 0) {
+            for (String path : args) {
+                run(new File(path));
+            }
+            return;
+        }
+
+        File[] files = Objects.requireNonNull(new File(Constants.TESTS_PATH).listFiles());
+        Arrays.sort(files);
+
+        List<File> inputs = new ArrayList<>();
+        for (File file : files) {
+            if (file.getName().contains(Constants.LARGE)) {
+                inputs.add(file);
+                run(file);
+            }
+        }
+
+        Path generated = Files.createTempFile("generated_" + GENERATED_USERS + "_users", ".json");
+        try {
+            generateInput(inputs.get(0), GENERATED_USERS, generated);
+            run(generated.toFile());
+        } finally {
+            Files.deleteIfExists(generated);
+        }
+    }
+
+    /**
+     * Writes an input with the videos and actors of a template input and with randomly
+     * generated users and view commands
+     */
+    private static void generateInput(final File template, final int users, final Path output)
+            throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode database = mapper.readTree(template).get(Constants.DATABASE);
+
+        List<String> titles = new ArrayList<>();
+        for (JsonNode show : database.get(Constants.MOVIES)) {
+            titles.add(show.get(Constants.NAME).asText());
+        }
+        for (JsonNode show : database.get(Constants.SHOWS)) {
+            titles.add(show.get(Constants.NAME).asText());
+        }
+
+        Random random = new Random(SEED);
+
+        try (JsonGenerator generator = mapper.getFactory()
+                .createGenerator(output.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart(Constants.DATABASE);
+            generator.writeFieldName(Constants.ACTORS);
+            generator.writeTree(database.get(Constants.ACTORS));
+            generator.writeFieldName(Constants.MOVIES);
+            generator.writeTree(database.get(Constants.MOVIES));
+            generator.writeFieldName(Constants.SHOWS);
+            generator.writeTree(database.get(Constants.SHOWS));
+
+            generator.writeArrayFieldStart(Constants.USERS);
+            for (int i = 0; i < users; i++) {
+                generator.writeStartObject();
+                generator.writeStringField(Constants.USERNAME, "u" + i);
+                generator.writeStringField(Constants.SUBSCRIPTION,
+                        i % 2 == 0 ? "PREMIUM" : "BASIC");
+
+                List<String> history = sample(titles, HISTORY_SIZE, random);
+
+                generator.writeArrayFieldStart(Constants.HISTORY);
+                for (String title : history) {
+                    generator.writeStartObject();
+                    generator.writeStringField(Constants.NAME, title);
+                    generator.writeNumberField(Constants.NUMBER_VIEWS,
+                            1 + random.nextInt(MAX_VIEWS));
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+
+                generator.writeArrayFieldStart(Constants.FAVORITE_MOVIES);
+                // Favoritele sunt alese dintre video-urile vazute
+                for (String title : sample(history, FAVORITES_SIZE, random)) {
+                    generator.writeString(title);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+
+            generator.writeArrayFieldStart(Constants.ACTIONS);
+            for (int i = 0; i < (int) (users * COMMANDS_PER_USER); i++) {
+                generator.writeStartObject();
+                generator.writeNumberField(Constants.ID, i + 1);
+                generator.writeStringField(Constants.ACTION_TYPE, Constants.COMMAND);
+                generator.writeStringField(Constants.TYPE, Constants.VIEW_COMMAND);
+                generator.writeStringField(Constants.USERNAME, "u" + random.nextInt(users));
+                generator.writeStringField(Constants.TITLE,
+                        titles.get(random.nextInt(titles.size())));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Picks distinct titles at random
+     */
+    private static List<String> sample(final List<String> titles, final int count,
+                                       final Random random) {
+        List<String> shuffled = new ArrayList<>(titles);
+
+        for (int i = 0; i < Math.min(count, shuffled.size()); i++) {
+            int j = i + random.nextInt(shuffled.size() - i);
+            shuffled.set(j, shuffled.set(i, shuffled.get(j)));
+        }
+
+        return shuffled.subList(0, Math.min(count, shuffled.size()));
+    }
+
+    private static void run(final File file) throws IOException {
+        Path snapshot = Files.createTempFile("database", ".snapshot");
+
+        try {
+            DatabaseSnapshot.write(loadFromJson(file), snapshot);
+
+            long bestJson = Long.MAX_VALUE;
+            long bestSnapshot = Long.MAX_VALUE;
+
+            // Primele runde incalzesc JIT-ul; se pastreaza cel mai bun timp
+            for (int i = 0; i < ROUNDS; i++) {
+                // Bazele de date din runda trecuta nu sunt colectate in timpul masuratorii
+                System.gc();
+                long start = System.nanoTime();
+                checksum += loadFromJson(file).getVideosOrder().size();
+                bestJson = Math.min(bestJson, System.nanoTime() - start);
+
+                System.gc();
+                start = System.nanoTime();
+                checksum += DatabaseSnapshot.read(snapshot).getVideosOrder().size();
+                bestSnapshot = Math.min(bestSnapshot, System.nanoTime() - start);
+            }
+
+            System.out.println(file.getName() + ": best of " + ROUNDS + " rounds");
+            System.out.printf("  JSON input: %8.2f MB, %8.2f ms%n",
+                    file.length() / BYTES_PER_MB, bestJson / NANOS_PER_MILLI);
+            System.out.printf("  snapshot:   %8.2f MB, %8.2f ms (%.1fx faster)%n",
+                    Files.size(snapshot) / BYTES_PER_MB, bestSnapshot / NANOS_PER_MILLI,
+                    (double) bestJson / bestSnapshot);
+            System.out.println("  (checksum " + checksum + ")");
+        } finally {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    private static Database loadFromJson(final File file) {
+        Input input = new JacksonInputLoader(file.getAbsolutePath()).readData();
+        VideosDB videosDB = new VideosDB();
+        videosDB.readDB(input);
+
+        return videosDB.getDatabase();
+    }
+}
@@ -0,0 +1,111 @@
+package benchmark;
+
+import common.TermDictionary;
+import common.Tokenizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares splitting long career descriptions with a regex, as the actors were indexed before,
+ * with the tokenizer over char ranges, both feeding a dictionary of words
+ */
+public final class TokenizerBenchmark {
+    private static final int DESCRIPTIONS = 2_000;
+    private static final int WORDS_PER_DESCRIPTION = 2_000;
+    private static final int VOCABULARY = 20_000;
+    private static final int ROUNDS = 10;
+    private static final int CAPITALIZED_WORD = 7;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final String[] SEPARATORS = {" ", ", ", ". ", " - ", "'s "};
+
+    /**
+     * for coding style
+     */
+    private TokenizerBenchmark() {
+    }
+
+    /**
+     * @param args unused
+     */
+    public static void main(final String[] args) {
+        List<String> descriptions = buildDescriptions();
+
+        // Incalzim JIT-ul pentru ambele variante
+        splitAll(descriptions);
+        tokenizeAll(descriptions);
+
+        long start = System.nanoTime();
+        long split = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            split += splitAll(descriptions);
+        }
+        long splitTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        long tokenized = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            tokenized += tokenizeAll(descriptions);
+        }
+        long tokenizeTime = System.nanoTime() - start;
+
+        System.out.println("Descriptions: " + DESCRIPTIONS + ", words per description: "
+                + WORDS_PER_DESCRIPTION + ", rounds: " + ROUNDS);
+        System.out.printf("toLowerCase().split: %.2f ms (checksum %d)%n",
+                splitTime / NANOS_PER_MILLI, split);
+        System.out.printf("Tokenizer:           %.2f ms (checksum %d)%n",
+                tokenizeTime / NANOS_PER_MILLI, tokenized);
+    }
+
+    private static List<String> buildDescriptions() {
+        Random random = new Random(0);
+        List<String> descriptions = new ArrayList<>();
+
+        for (int i = 0; i < DESCRIPTIONS; i++) {
+            StringBuilder description = new StringBuilder();
+
+            for (int j = 0; j < WORDS_PER_DESCRIPTION; j++) {
+                int word = random.nextInt(VOCABULARY);
+
+                description.append(word % CAPITALIZED_WORD == 0 ? "Word" : "word").append(word)
+                        .append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+            }
+
+            descriptions.add(description.toString());
+        }
+
+        return descriptions;
+    }
+
+    private static long splitAll(final List<String> descriptions) {
+        HashMap<String, Integer> dictionary = new HashMap<>();
+        long total = 0;
+
+        for (String description : descriptions) {
+            for (String word : description.toLowerCase().split("\\W+")) {
+                total += dictionary.computeIfAbsent(word, w -> dictionary.size());
+            }
+        }
+
+        return total;
+    }
+
+    private static long tokenizeAll(final List<String> descriptions) {
+        TermDictionary dictionary = new TermDictionary();
+        Tokenizer tokenizer = new Tokenizer();
+        long total = 0;
+
+        for (String description : descriptions) {
+            tokenizer.reset(description);
+
+            while (tokenizer.next()) {
+                total += dictionary.intern(tokenizer.getText(), tokenizer.getStart(),
+                        tokenizer.getEnd());
+            }
+        }
+
+        return total;
+    }
+}
@@ -0,0 +1,170 @@
+package common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Interning dictionary that gives every distinct name a dense integer id, starting from 0, in
+ * the order the names are first seen
+ */
+public final class Dictionary {
+    public static final int NOT_FOUND = -1;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private HashMap<String, Integer> ids;
+    private List<String> names;
+    /**
+     * Ids of the names that have ranks, in alphabetical order
+     */
+    private int[] sortedIds;
+    private int[] ranks;
+    /**
+     * Number of names that have ranks, the first ones added
+     */
+    private int ranked;
+
+    public Dictionary() {
+        ids = new HashMap<>();
+        names = new ArrayList<>();
+        sortedIds = new int[0];
+        ranks = new int[0];
+    }
+
+    /**
+     * Prepares an empty dictionary for a known number of names, so that it is not resized
+     * while they are added
+     *
+     * @param expectedSize number of names
+     */
+    public void ensureCapacity(final int expectedSize) {
+        if (names.isEmpty()) {
+            ids = new HashMap<>((int) Math.ceil(expectedSize / LOAD_FACTOR));
+            names = new ArrayList<>(expectedSize);
+        }
+    }
+
+    /**
+     * Retrieves the id of a name, giving it a new id if it has not been seen before
+     *
+     * @param name given name
+     * @return id of the name
+     */
+    public int intern(final String name) {
+        Integer id = ids.putIfAbsent(name, names.size());
+
+        if (id == null) {
+            names.add(name);
+            return names.size() - 1;
+        }
+
+        return id;
+    }
+
+    /**
+     * Retrieves the id of a name, without adding it to the dictionary
+     *
+     * @param name given name
+     * @return id of the name or NOT_FOUND
+     */
+    public int getId(final String name) {
+        Integer id = ids.get(name);
+
+        if (id == null) {
+            return NOT_FOUND;
+        }
+
+        return id;
+    }
+
+    /**
+     * Retrieves the name with the given id
+     *
+     * @param id given id
+     * @return name
+     */
+    public String getName(final int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Retrieves the position of a name in the alphabetical order of all the names, so that
+     * comparing two ranks gives the same order as comparing the names. The names added since
+     * the last call are merged into the order first
+     *
+     * @param id given id
+     * @return rank of the name
+     */
+    public int getRank(final int id) {
+        if (ranked != names.size()) {
+            updateRanks();
+        }
+
+        return ranks[id];
+    }
+
+    /**
+     * Sorts the names added since the last update and merges them into the alphabetical order;
+     * only the ranks from the first merged name onward change
+     */
+    private void updateRanks() {
+        int size = names.size();
+        String[] added = names.subList(ranked, size).toArray(new String[0]);
+        Arrays.sort(added);
+
+        int[] merged = new int[size];
+        int from = 0;
+        int copied = 0;
+        int firstChanged = ranked;
+
+        for (String name : added) {
+            int position = insertionPoint(name, from);
+            firstChanged = Math.min(firstChanged, position + copied - from);
+
+            System.arraycopy(sortedIds, from, merged, copied, position - from);
+            copied += position - from;
+            merged[copied++] = ids.get(name);
+            from = position;
+        }
+        System.arraycopy(sortedIds, from, merged, copied, ranked - from);
+
+        ranks = Arrays.copyOf(ranks, size);
+        for (int i = firstChanged; i < size; i++) {
+            ranks[merged[i]] = i;
+        }
+
+        sortedIds = merged;
+        ranked = size;
+    }
+
+    /**
+     * Finds the position of a new name among the ranked names, searching from a given position
+     */
+    private int insertionPoint(final String name, final int from) {
+        int low = from;
+        int high = ranked;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (names.get(sortedIds[middle]).compareTo(name) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Retrieves the number of names in the dictionary
+     *
+     * @return number of names
+     */
+    public int size() {
+        return names.size();
+    }
+}
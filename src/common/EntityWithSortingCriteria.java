@@ -1,31 +1,55 @@
 package common;
 
-public class EntityWithSortingCriteria implements Comparable {
-    private String name;
-    private Double sortingCriteria;
+public class EntityWithSortingCriteria implements Comparable<EntityWithSortingCriteria> {
+    public static final int NO_RANK = -1;
 
-    public EntityWithSortingCriteria(final String name, final Double rating) {
+    static final long NO_KEY = -1;
+
+    private static final int LOW_BITS = 32;
+
+    private final String name;
+    private final double sortingCriteria;
+    private final int nameRank;
+    private final long packedKey;
+
+    public EntityWithSortingCriteria(final String name, final double rating) {
+        this(name, rating, NO_RANK);
+    }
+
+    /**
+     * @param name     entity's name
+     * @param rating   sorting criteria
+     * @param nameRank position of the name in the alphabetical order of the names that are
+     *                 compared with it (see Dictionary.getRank), or NO_RANK
+     */
+    public EntityWithSortingCriteria(final String name, final double rating, final int nameRank) {
         this.name = name;
         this.sortingCriteria = rating;
+        this.nameRank = nameRank;
+        this.packedKey = nameRank == NO_RANK ? NO_KEY : packKey(rating, nameRank);
     }
 
     /**
-     * Compares to another object
-     * @param o object to be compared with
+     * Compares to another entity: by the sorting criteria, then by name
+     * @param o entity to be compared with
      * @return order
      */
     @Override
-    public int compareTo(final Object o) {
-        if (o instanceof EntityWithSortingCriteria) {
-            if (Double.compare(this.sortingCriteria,
-                    ((EntityWithSortingCriteria) o).sortingCriteria) == 0) {
-                return this.name.compareTo(((EntityWithSortingCriteria) o).name);
-            }
-
-            return Double.compare(this.sortingCriteria,
-                    ((EntityWithSortingCriteria) o).sortingCriteria);
+    public int compareTo(final EntityWithSortingCriteria o) {
+        if (packedKey != NO_KEY && o.packedKey != NO_KEY) {
+            return Long.compare(packedKey, o.packedKey);
+        }
+
+        int criteriaDiff = Double.compare(sortingCriteria, o.sortingCriteria);
+        if (criteriaDiff != 0) {
+            return criteriaDiff;
+        }
+
+        if (nameRank != NO_RANK && o.nameRank != NO_RANK) {
+            return Integer.compare(nameRank, o.nameRank);
         }
-        return 0;
+
+        return name.compareTo(o.name);
     }
 
     /**
@@ -36,4 +60,24 @@ public class EntityWithSortingCriteria implements Comparable {
     public String toString() {
         return this.name;
     }
+
+    /**
+     * Packs two sort keys into a long ordered like (first, second), if both are non-negative
+     * integers that fit in an int
+     * @param first  first key
+     * @param second second key
+     * @return packed key or NO_KEY
+     */
+    static long packKey(final double first, final double second) {
+        if (!fitsInInt(first) || !fitsInInt(second)) {
+            return NO_KEY;
+        }
+
+        return ((long) first << LOW_BITS) | (long) second;
+    }
+
+    private static boolean fitsInInt(final double value) {
+        return Double.compare(value, 0.0) >= 0 && value <= Integer.MAX_VALUE
+                && value == Math.rint(value);
+    }
 }
@@ -1,37 +1,40 @@
 package common;
 
-public class EntityWithTwoSortingCriterias implements Comparable {
-    private String name;
-    private Double firstSortingCriteria;
-    private Double secondSortingCriteria;
+public class EntityWithTwoSortingCriterias implements Comparable<EntityWithTwoSortingCriterias> {
+    private final String name;
+    private final double firstSortingCriteria;
+    private final double secondSortingCriteria;
+    private final long packedKey;
 
     public EntityWithTwoSortingCriterias(final String givenName,
-                                         final Double givenSortingCriteria,
-                                         final Double givenSecondSortingCriteria) {
+                                         final double givenSortingCriteria,
+                                         final double givenSecondSortingCriteria) {
         name = givenName;
         firstSortingCriteria = givenSortingCriteria;
         secondSortingCriteria = givenSecondSortingCriteria;
+        packedKey = EntityWithSortingCriteria.packKey(givenSortingCriteria,
+                givenSecondSortingCriteria);
     }
 
     /**
-     * Compares to another object
-     * @param o object to be compared with
+     * Compares to another entity: by the first criteria, then by the second one
+     * @param o entity to be compared with
      * @return order
      */
     @Override
-    public int compareTo(final Object o) {
-        if (o instanceof EntityWithTwoSortingCriterias) {
-            int firstDiff = Double.compare(this.firstSortingCriteria,
-                    ((EntityWithTwoSortingCriterias) o).firstSortingCriteria);
+    public int compareTo(final EntityWithTwoSortingCriterias o) {
+        if (packedKey != EntityWithSortingCriteria.NO_KEY
+                && o.packedKey != EntityWithSortingCriteria.NO_KEY) {
+            return Long.compare(packedKey, o.packedKey);
+        }
 
-            if (firstDiff == 0) {
-                return Double.compare(this.secondSortingCriteria,
-                        ((EntityWithTwoSortingCriterias) o).secondSortingCriteria);
-            }
+        int firstDiff = Double.compare(firstSortingCriteria, o.firstSortingCriteria);
 
-            return firstDiff;
+        if (firstDiff == 0) {
+            return Double.compare(secondSortingCriteria, o.secondSortingCriteria);
         }
-        return 0;
+
+        return firstDiff;
     }
 
     /**
@@ -0,0 +1,61 @@
+package common;
+
+/**
+ * Builds result messages of the form "prefix[name1, name2]", the format of a printed list,
+ * by appending the names straight into a buffer that is reused from one message to the next
+ */
+public final class ResultSink {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final StringBuilder buffer;
+    private boolean empty;
+
+    public ResultSink() {
+        buffer = new StringBuilder(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Starts a new message, discarding the previous one
+     *
+     * @param prefix text before the list of names
+     * @return this sink
+     */
+    public ResultSink begin(final String prefix) {
+        buffer.setLength(0);
+        buffer.append(prefix).append('[');
+        empty = true;
+
+        return this;
+    }
+
+    /**
+     * Appends a name to the list
+     *
+     * @param name given name
+     */
+    public void add(final String name) {
+        if (!empty) {
+            buffer.append(", ");
+        }
+        buffer.append(name);
+        empty = false;
+    }
+
+    /**
+     * Appends an entity to the list, as printed by its toString
+     *
+     * @param entity given entity
+     */
+    public void add(final Object entity) {
+        add(String.valueOf(entity));
+    }
+
+    /**
+     * Closes the list
+     *
+     * @return message
+     */
+    public String finish() {
+        return buffer.append(']').toString();
+    }
+}
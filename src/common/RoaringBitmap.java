@@ -0,0 +1,510 @@
+package common;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Compressed bitmap of non-negative integers, organised like a roaring bitmap: the values are
+ * split in chunks by their 16 high bits and every chunk keeps its 16 low bits either as a
+ * sorted array (sparse chunks) or as a plain bitmap (dense chunks)
+ */
+public final class RoaringBitmap {
+    private static final int CHUNK_BITS = 16;
+    private static final int LOW_MASK = 0xFFFF;
+    private static final int MAX_ARRAY_SIZE = 4096;
+    private static final int WORDS_PER_BITMAP = 1024;
+    private static final int WORD_SHIFT = 6;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    public RoaringBitmap() {
+        keys = new char[INITIAL_CAPACITY];
+        containers = new Container[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds a value to the bitmap
+     *
+     * @param value non-negative value
+     */
+    public void add(final int value) {
+        char key = highBits(value);
+        int index = findKey(key);
+
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, key, new ArrayContainer());
+        }
+
+        containers[index] = containers[index].add(lowBits(value));
+    }
+
+    /**
+     * Removes a value from the bitmap
+     *
+     * @param value non-negative value
+     */
+    public void remove(final int value) {
+        int index = findKey(highBits(value));
+
+        if (index < 0) {
+            return;
+        }
+
+        containers[index] = containers[index].remove(lowBits(value));
+        if (containers[index].cardinality() == 0) {
+            removeContainer(index);
+        }
+    }
+
+    /**
+     * Checks if a value is in the bitmap
+     *
+     * @param value given value
+     * @return if the value is in the bitmap
+     */
+    public boolean contains(final int value) {
+        if (value < 0) {
+            return false;
+        }
+
+        int index = findKey(highBits(value));
+
+        return index >= 0 && containers[index].contains(lowBits(value));
+    }
+
+    /**
+     * Retrieves the number of values in the bitmap
+     *
+     * @return number of values
+     */
+    public int cardinality() {
+        int cardinality = 0;
+
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+
+        return cardinality;
+    }
+
+    /**
+     * Checks if the bitmap has no values
+     *
+     * @return if the bitmap is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Computes the values of this bitmap that are not in the other one
+     *
+     * @param other given bitmap
+     * @return new bitmap with the difference
+     */
+    public RoaringBitmap andNot(final RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap();
+
+        for (int i = 0; i < size; i++) {
+            int otherIndex = other.findKey(keys[i]);
+            Container container = containers[i];
+
+            if (otherIndex >= 0) {
+                container = container.andNot(other.containers[otherIndex]);
+            } else {
+                container = container.copy();
+            }
+
+            if (container.cardinality() > 0) {
+                result.insertContainer(result.size, keys[i], container);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the values that are in both bitmaps
+     *
+     * @param other given bitmap
+     * @return new bitmap with the intersection
+     */
+    public RoaringBitmap and(final RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap();
+
+        for (int i = 0; i < size; i++) {
+            int otherIndex = other.findKey(keys[i]);
+
+            if (otherIndex >= 0) {
+                Container container = containers[i].and(other.containers[otherIndex]);
+
+                if (container.cardinality() > 0) {
+                    result.insertContainer(result.size, keys[i], container);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Iterates over the values of the bitmap in ascending order
+     *
+     * @return iterator
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int containerIndex = 0;
+            private int next = advance(0, 0);
+
+            private int advance(final int fromContainer, final int fromLow) {
+                int low = fromLow;
+
+                for (containerIndex = fromContainer; containerIndex < size; containerIndex++) {
+                    int found = containers[containerIndex].nextValue(low);
+
+                    if (found >= 0) {
+                        return (keys[containerIndex] << CHUNK_BITS) | found;
+                    }
+                    low = 0;
+                }
+
+                return -1;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+
+                int value = next;
+                int low = (value & LOW_MASK) + 1;
+
+                if (low > LOW_MASK) {
+                    next = advance(containerIndex + 1, 0);
+                } else {
+                    next = advance(containerIndex, low);
+                }
+
+                return value;
+            }
+        };
+    }
+
+    private static char highBits(final int value) {
+        return (char) (value >>> CHUNK_BITS);
+    }
+
+    private static char lowBits(final int value) {
+        return (char) (value & LOW_MASK);
+    }
+
+    private int findKey(final char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertContainer(final int index, final char key, final Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void removeContainer(final int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    /**
+     * Keeps the 16 low bits of the values from a chunk
+     */
+    private abstract static class Container {
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        /**
+         * Finds the smallest value greater or equal to the given one
+         */
+        abstract int nextValue(int from);
+
+        abstract Container copy();
+
+        abstract BitmapContainer toBitmap();
+
+        Container andNot(final Container other) {
+            BitmapContainer result = toBitmap();
+            BitmapContainer otherBitmap = other.toBitmap();
+
+            for (int i = 0; i < WORDS_PER_BITMAP; i++) {
+                result.words[i] &= ~otherBitmap.words[i];
+            }
+            result.updateCardinality();
+
+            return result.shrink();
+        }
+
+        Container and(final Container other) {
+            BitmapContainer result = toBitmap();
+            BitmapContainer otherBitmap = other.toBitmap();
+
+            for (int i = 0; i < WORDS_PER_BITMAP; i++) {
+                result.words[i] &= otherBitmap.words[i];
+            }
+            result.updateCardinality();
+
+            return result.shrink();
+        }
+    }
+
+    /**
+     * Sorted array of values, used for sparse chunks
+     */
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int count;
+
+        ArrayContainer() {
+            values = new char[INITIAL_CAPACITY];
+        }
+
+        ArrayContainer(final char[] values, final int count) {
+            this.values = values;
+            this.count = count;
+        }
+
+        @Override
+        Container add(final char value) {
+            int index = Arrays.binarySearch(values, 0, count, value);
+
+            if (index >= 0) {
+                return this;
+            }
+
+            if (count == MAX_ARRAY_SIZE) {
+                return toBitmap().add(value);
+            }
+
+            index = -index - 1;
+            if (count == values.length) {
+                values = Arrays.copyOf(values,
+                        Math.min(Math.max(count * 2, INITIAL_CAPACITY), MAX_ARRAY_SIZE));
+            }
+            System.arraycopy(values, index, values, index + 1, count - index);
+            values[index] = value;
+            count++;
+
+            return this;
+        }
+
+        @Override
+        Container remove(final char value) {
+            int index = Arrays.binarySearch(values, 0, count, value);
+
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, count - index - 1);
+                count--;
+            }
+
+            return this;
+        }
+
+        @Override
+        boolean contains(final char value) {
+            return Arrays.binarySearch(values, 0, count, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return count;
+        }
+
+        @Override
+        int nextValue(final int from) {
+            int index = Arrays.binarySearch(values, 0, count, (char) from);
+
+            if (index < 0) {
+                index = -index - 1;
+            }
+
+            return index < count ? values[index] : -1;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, values.length), count);
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+
+            for (int i = 0; i < count; i++) {
+                bitmap.add(values[i]);
+            }
+
+            return bitmap;
+        }
+
+        @Override
+        Container andNot(final Container other) {
+            char[] result = new char[count];
+            int resultCount = 0;
+
+            for (int i = 0; i < count; i++) {
+                if (!other.contains(values[i])) {
+                    result[resultCount++] = values[i];
+                }
+            }
+
+            return new ArrayContainer(result, resultCount);
+        }
+
+        @Override
+        Container and(final Container other) {
+            char[] result = new char[count];
+            int resultCount = 0;
+
+            for (int i = 0; i < count; i++) {
+                if (other.contains(values[i])) {
+                    result[resultCount++] = values[i];
+                }
+            }
+
+            return new ArrayContainer(result, resultCount);
+        }
+    }
+
+    /**
+     * Plain bitmap of 2^16 bits, used for dense chunks
+     */
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int count;
+
+        BitmapContainer() {
+            words = new long[WORDS_PER_BITMAP];
+        }
+
+        @Override
+        Container add(final char value) {
+            long mask = 1L << value;
+            int word = value >>> WORD_SHIFT;
+
+            if ((words[word] & mask) == 0) {
+                words[word] |= mask;
+                count++;
+            }
+
+            return this;
+        }
+
+        @Override
+        Container remove(final char value) {
+            long mask = 1L << value;
+            int word = value >>> WORD_SHIFT;
+
+            if ((words[word] & mask) != 0) {
+                words[word] &= ~mask;
+                count--;
+            }
+
+            return shrink();
+        }
+
+        @Override
+        boolean contains(final char value) {
+            return (words[value >>> WORD_SHIFT] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return count;
+        }
+
+        @Override
+        int nextValue(final int from) {
+            int word = from >>> WORD_SHIFT;
+
+            if (word >= WORDS_PER_BITMAP) {
+                return -1;
+            }
+
+            long bits = words[word] & (-1L << from);
+
+            while (true) {
+                if (bits != 0) {
+                    return (word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+                }
+                word++;
+                if (word == WORDS_PER_BITMAP) {
+                    return -1;
+                }
+                bits = words[word];
+            }
+        }
+
+        @Override
+        Container copy() {
+            BitmapContainer copy = new BitmapContainer();
+
+            System.arraycopy(words, 0, copy.words, 0, WORDS_PER_BITMAP);
+            copy.count = count;
+
+            return copy;
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            return (BitmapContainer) copy();
+        }
+
+        void updateCardinality() {
+            count = 0;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+        }
+
+        /**
+         * Converts the chunk back to an array once it becomes sparse
+         */
+        Container shrink() {
+            if (count > MAX_ARRAY_SIZE) {
+                return this;
+            }
+
+            char[] values = new char[Math.max(count, 1)];
+            int index = 0;
+
+            for (int value = nextValue(0); value >= 0; value = nextValue(value + 1)) {
+                values[index++] = (char) value;
+            }
+
+            return new ArrayContainer(values, count);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package common;
+
+/**
+ * Keeps the sum and the count of a set of values up to date, so that the average can be read
+ * without iterating over the values again.
+ *
+ * The sum is compensated (Kahan), like the one computed by DoubleStream.sum()
+ */
+public final class RunningAverage {
+    private double sum;
+    private double compensation;
+    private int count;
+
+    public RunningAverage() {
+    }
+
+    /**
+     * Restores a running average from its state
+     *
+     * @param sum          uncompensated sum, as returned by getRunningSum
+     * @param compensation compensation of the sum, as returned by getCompensation
+     * @param count        number of values
+     */
+    public RunningAverage(final double sum, final double compensation, final int count) {
+        this.sum = sum;
+        this.compensation = compensation;
+        this.count = count;
+    }
+
+    /**
+     * Adds a value
+     *
+     * @param value value to be added
+     */
+    public void add(final double value) {
+        addToSum(value);
+        count++;
+    }
+
+    /**
+     * Removes a value that has been previously added
+     *
+     * @param value value to be removed
+     */
+    public void remove(final double value) {
+        addToSum(-value);
+        count--;
+    }
+
+    /**
+     * Replaces a value that has been previously added
+     *
+     * @param oldValue value to be removed
+     * @param newValue value to be added
+     */
+    public void replace(final double oldValue, final double newValue) {
+        addToSum(-oldValue);
+        addToSum(newValue);
+    }
+
+    /**
+     * Retrieves the sum of the values
+     *
+     * @return sum
+     */
+    public double getSum() {
+        return sum - compensation;
+    }
+
+    /**
+     * Retrieves the sum kept without its compensation, needed to restore the exact state
+     *
+     * @return uncompensated sum
+     */
+    public double getRunningSum() {
+        return sum;
+    }
+
+    /**
+     * Retrieves the compensation of the sum, needed to restore the exact state
+     *
+     * @return compensation
+     */
+    public double getCompensation() {
+        return compensation;
+    }
+
+    /**
+     * Retrieves the number of values
+     *
+     * @return number of values
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Retrieves the average of the values
+     *
+     * @return average or 0 if there are no values
+     */
+    public double getAverage() {
+        if (count == 0) {
+            return 0;
+        }
+
+        return getSum() / count;
+    }
+
+    private void addToSum(final double value) {
+        double correctedValue = value - compensation;
+        double newSum = sum + correctedValue;
+
+        compensation = (newSum - sum) - correctedValue;
+        sum = newSum;
+    }
+}
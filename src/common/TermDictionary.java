@@ -0,0 +1,179 @@
+package common;
+
+import java.util.Arrays;
+
+/**
+ * Gives dense ids to words, looked up by char ranges so that no substring is created. The
+ * characters of all the words are kept in a single pool and the ids in an open addressing hash
+ * table
+ */
+public final class TermDictionary {
+    public static final int NOT_FOUND = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int INITIAL_POOL_SIZE = 1024;
+    private static final int HASH_MULTIPLIER = 31;
+    private static final int CASE_OFFSET = 'a' - 'A';
+
+    private char[] pool;
+    private int poolSize;
+    private int[] termStarts;
+    private int[] termLengths;
+    private int[] termHashes;
+    private int size;
+    private int[] table;
+
+    public TermDictionary() {
+        pool = new char[INITIAL_POOL_SIZE];
+        termStarts = new int[INITIAL_CAPACITY];
+        termLengths = new int[INITIAL_CAPACITY];
+        termHashes = new int[INITIAL_CAPACITY];
+        table = new int[INITIAL_CAPACITY * 2];
+        Arrays.fill(table, NOT_FOUND);
+    }
+
+    /**
+     * Retrieves the id of a word, lowercased, giving it a new id if it has none
+     *
+     * @param text  text containing the word
+     * @param start index of the word's first character
+     * @param end   index after the word's last character
+     * @return id of the word
+     */
+    public int intern(final CharSequence text, final int start, final int end) {
+        int hash = hash(text, start, end, true);
+        int slot = find(text, start, end, hash, true);
+
+        if (table[slot] != NOT_FOUND) {
+            return table[slot];
+        }
+
+        int length = end - start;
+        if (poolSize + length > pool.length) {
+            pool = Arrays.copyOf(pool, Math.max(pool.length * 2, poolSize + length));
+        }
+        for (int i = 0; i < length; i++) {
+            pool[poolSize + i] = lowerCase(text.charAt(start + i));
+        }
+
+        if (size == termStarts.length) {
+            termStarts = Arrays.copyOf(termStarts, size * 2);
+            termLengths = Arrays.copyOf(termLengths, size * 2);
+            termHashes = Arrays.copyOf(termHashes, size * 2);
+        }
+        termStarts[size] = poolSize;
+        termLengths[size] = length;
+        termHashes[size] = hash;
+        poolSize += length;
+
+        table[slot] = size;
+        size++;
+
+        if (size * 2 > table.length) {
+            rehash();
+        }
+
+        return size - 1;
+    }
+
+    /**
+     * Retrieves the id of a word, compared exactly with the stored (lowercase) words
+     *
+     * @param word given word
+     * @return id of the word or NOT_FOUND if it has no id
+     */
+    public int getId(final CharSequence word) {
+        int hash = hash(word, 0, word.length(), false);
+
+        return table[find(word, 0, word.length(), hash, false)];
+    }
+
+    /**
+     * Retrieves a word
+     *
+     * @param id id of the word
+     * @return word
+     */
+    public String getTerm(final int id) {
+        return new String(pool, termStarts[id], termLengths[id]);
+    }
+
+    /**
+     * Retrieves the number of words
+     *
+     * @return number of words
+     */
+    public int size() {
+        return size;
+    }
+
+    private int find(final CharSequence text, final int start, final int end, final int hash,
+                     final boolean lower) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+
+        while (table[slot] != NOT_FOUND) {
+            int id = table[slot];
+
+            if (termHashes[id] == hash && equalsTerm(id, text, start, end, lower)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private boolean equalsTerm(final int id, final CharSequence text, final int start,
+                               final int end, final boolean lower) {
+        if (termLengths[id] != end - start) {
+            return false;
+        }
+
+        for (int i = 0; i < termLengths[id]; i++) {
+            char c = text.charAt(start + i);
+
+            if (pool[termStarts[id] + i] != (lower ? lowerCase(c) : c)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        Arrays.fill(table, NOT_FOUND);
+
+        int mask = table.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = termHashes[id] & mask;
+
+            while (table[slot] != NOT_FOUND) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id;
+        }
+    }
+
+    private static int hash(final CharSequence text, final int start, final int end,
+                            final boolean lower) {
+        int hash = 0;
+
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            hash = HASH_MULTIPLIER * hash + (lower ? lowerCase(c) : c);
+        }
+
+        // Amestecam bitii, tabela foloseste doar bitii de jos
+        return hash ^ (hash >>> (Integer.SIZE / 2));
+    }
+
+    private static char lowerCase(final char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return (char) (c + CASE_OFFSET);
+        }
+
+        return c;
+    }
+}
@@ -0,0 +1,126 @@
+package common;
+
+/**
+ * Splits a text in words without creating substrings, giving the same words as
+ * {@code text.toLowerCase().split("\\W+")}: a word is a maximal run of ASCII letters, digits and
+ * underscores. The words are returned as [start, end) ranges of the text and are not lowercased;
+ * {@link TermDictionary#intern} lowercases them while hashing.
+ *
+ * Texts with non-ASCII characters are lowercased first, because lowercasing them can produce
+ * ASCII letters (like the Kelvin sign), so only those texts are copied
+ */
+public final class Tokenizer {
+    private static final char LAST_ASCII = 0x7F;
+
+    private CharSequence text;
+    private int position;
+    private int start;
+    private int end;
+    private boolean leadingEmpty;
+
+    /**
+     * Starts splitting a new text
+     *
+     * @param newText given text
+     * @return this tokenizer
+     */
+    public Tokenizer reset(final CharSequence newText) {
+        text = newText;
+
+        for (int i = 0; i < newText.length(); i++) {
+            if (newText.charAt(i) > LAST_ASCII) {
+                text = newText.toString().toLowerCase();
+                break;
+            }
+        }
+
+        position = 0;
+        start = 0;
+        end = 0;
+
+        // split() keeps an empty first word if the text starts with a separator, and returns
+        // the text itself (an empty word) for an empty text
+        leadingEmpty = text.length() == 0 || !isWordChar(text.charAt(0));
+
+        return this;
+    }
+
+    /**
+     * Advances to the next word
+     *
+     * @return if there is another word
+     */
+    public boolean next() {
+        int length = text.length();
+        int wordStart = position;
+
+        while (wordStart < length && !isWordChar(text.charAt(wordStart))) {
+            wordStart++;
+        }
+
+        if (leadingEmpty) {
+            leadingEmpty = false;
+
+            // split() drops trailing empty words, so a text with no words has none
+            if (length == 0 || wordStart < length) {
+                start = 0;
+                end = 0;
+                return true;
+            }
+        }
+
+        if (wordStart == length) {
+            position = length;
+            return false;
+        }
+
+        int wordEnd = wordStart;
+        while (wordEnd < length && isWordChar(text.charAt(wordEnd))) {
+            wordEnd++;
+        }
+
+        start = wordStart;
+        end = wordEnd;
+        position = wordEnd;
+
+        return true;
+    }
+
+    /**
+     * Retrieves the text being split, which may be a lowercase copy of the given one
+     *
+     * @return text
+     */
+    public CharSequence getText() {
+        return text;
+    }
+
+    /**
+     * Retrieves the start of the current word
+     *
+     * @return index of the first character
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Retrieves the end of the current word
+     *
+     * @return index after the last character
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Checks if a character is matched by \w
+     *
+     * @param c given character
+     * @return if the character is part of a word
+     */
+    public static boolean isWordChar(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '_';
+    }
+}
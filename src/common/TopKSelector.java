@@ -0,0 +1,84 @@
+package common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the first k elements, in a given order, out of the elements added to it, using a heap
+ * bounded to k elements, so that selecting them costs O(n log k) instead of sorting all n.
+ * Without an order it keeps the first k elements added, like limiting an unsorted list
+ *
+ * @param <T> type of the elements
+ */
+public final class TopKSelector<T> {
+    private final int limit;
+    private final Comparator<? super T> order;
+    private final PriorityQueue<T> heap;
+    private final List<T> unordered;
+
+    /**
+     * @param limit maximum number of elements kept
+     * @param order order of the elements, or null to keep the first elements added
+     */
+    public TopKSelector(final int limit, final Comparator<? super T> order) {
+        if (limit < 0) {
+            throw new IllegalArgumentException(Integer.toString(limit));
+        }
+
+        this.limit = limit;
+        this.order = order;
+        this.unordered = new ArrayList<>();
+        // Heap-ul are in varf cel mai "slab" element pastrat
+        this.heap = order == null ? null
+                : new PriorityQueue<>(Math.max(limit, 1), Collections.reverseOrder(order));
+    }
+
+    /**
+     * Offers an element to the selection
+     *
+     * @param element given element
+     */
+    public void add(final T element) {
+        if (heap == null) {
+            if (unordered.size() < limit) {
+                unordered.add(element);
+            }
+            return;
+        }
+
+        if (heap.size() < limit) {
+            heap.add(element);
+        } else if (limit > 0 && order.compare(element, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(element);
+        }
+    }
+
+    /**
+     * Appends the selected elements, sorted in the given order, to a result message. The
+     * selector is emptied
+     *
+     * @param sink result message
+     */
+    public void writeTo(final ResultSink sink) {
+        if (heap == null) {
+            for (T element : unordered) {
+                sink.add(element);
+            }
+            return;
+        }
+
+        // Scoatem din heap de la cel mai "slab" la cel mai bun element
+        Object[] elements = new Object[heap.size()];
+        for (int i = elements.length - 1; i >= 0; i--) {
+            elements[i] = heap.poll();
+        }
+
+        for (Object element : elements) {
+            sink.add(element);
+        }
+    }
+}
@@ -1,34 +1,38 @@
 package entertainment;
 
+import common.RunningAverage;
 import fileio.MovieInputData;
 import utils.Utils;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class Movie extends Video {
-    private double rating;
     private int duration;
 
-    private HashMap<String, Double> ratingsFromUsers;
+    private HashMap<Integer, Double> ratingsFromUsers;
+    private RunningAverage rating;
 
     public Movie(
+            final int id,
             final String title,
             final int releaseYear,
             final ArrayList<Genre> genres,
             final ArrayList<String> cast,
             final int duration) {
-        super(title, releaseYear, genres, cast);
+        super(id, title, releaseYear, genres, cast);
 
         this.duration = duration;
 
-        rating = 0;
+        rating = new RunningAverage();
         ratingsFromUsers = new HashMap<>();
     }
 
-    public Movie(final MovieInputData movieInput) {
+    public Movie(final int id, final MovieInputData movieInput) {
         this(
+                id,
                 movieInput.getTitle(),
                 movieInput.getYear(),
                 new ArrayList<Genre>(
@@ -44,24 +48,40 @@ public class Movie extends Video {
                 movieInput.getDuration());
     }
 
+    /**
+     * Retrieves the video's type
+     *
+     * @return movie
+     */
+    @Override
+    public VideoType getType() {
+        return VideoType.MOVIE;
+    }
+
     /**
      * Adds rating given by user
      *
-     * @param user        user that rates
+     * @param userId      user that rates
      * @param givenRating rating given by user
      */
-    public void addRatingForUser(final String user, final Double givenRating) {
-        ratingsFromUsers.put(user, givenRating);
+    public void addRatingForUser(final int userId, final Double givenRating) {
+        Double oldRating = ratingsFromUsers.put(userId, givenRating);
+
+        if (oldRating == null) {
+            rating.add(givenRating);
+        } else {
+            rating.replace(oldRating, givenRating);
+        }
     }
 
     /**
      * Returns if a user has rated the movie
      *
-     * @param user user that needs to be checked
+     * @param userId user that needs to be checked
      * @return if the user has rated the movie
      */
-    public boolean existsRatingFromUser(final String user) {
-        return ratingsFromUsers.containsKey(user);
+    public boolean existsRatingFromUser(final int userId) {
+        return ratingsFromUsers.containsKey(userId);
     }
 
     /**
@@ -71,12 +91,30 @@ public class Movie extends Video {
      */
     @Override
     public Double getRating() {
-        if (ratingsFromUsers.size() == 0) {
-            return (double) 0;
-        }
+        return rating.getAverage();
+    }
 
-        return ratingsFromUsers.values().stream().mapToDouble(Double::doubleValue).sum()
-                / ratingsFromUsers.values().size();
+    /**
+     * Gets the running average of the ratings
+     *
+     * @return ratings average
+     */
+    public RunningAverage getRatingAverage() {
+        return rating;
+    }
+
+    /**
+     * Replaces the ratings, when the movie is restored from a snapshot
+     *
+     * @param ratings ratings given by users
+     * @param average running average of the ratings
+     */
+    public void restoreRatings(final Map<Integer, Double> ratings,
+                               final RunningAverage average) {
+        // Adaugate una cate una, ca map-ul sa fie parcurs in aceeasi ordine ca originalul
+        ratingsFromUsers = new HashMap<>();
+        ratings.forEach(ratingsFromUsers::put);
+        rating = average;
     }
 
     /**
@@ -84,7 +122,7 @@ public class Movie extends Video {
      *
      * @return ratings
      */
-    public HashMap<String, Double> getRatingsForUsers() {
+    public HashMap<Integer, Double> getRatingsForUsers() {
         return ratingsFromUsers;
     }
 
@@ -93,6 +131,7 @@ public class Movie extends Video {
      *
      * @return movie's duration
      */
+    @Override
     public int getDuration() {
         return duration;
     }
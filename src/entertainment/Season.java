@@ -1,8 +1,11 @@
 package entertainment;
 
+import common.RunningAverage;
+
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Information about a season of a tv show
@@ -17,13 +20,22 @@ public final class Season {
   /** List of ratings for each season */
   private List<Double> ratings;
 
-  private HashMap<String, Double> ratingsByUser;
+  private HashMap<Integer, Double> ratingsByUser;
+  /** Running sum and count of the ratings */
+  private RunningAverage ratingAverage;
+  /** Serial the season belongs to, notified when the season is rated */
+  private Serial serial;
 
   public Season(final int currentSeason, final int duration) {
     this.currentSeason = currentSeason;
     this.duration = duration;
     this.ratings = new ArrayList<>();
     this.ratingsByUser = new HashMap<>();
+    this.ratingAverage = new RunningAverage();
+  }
+
+  public int getCurrentSeason() {
+    return currentSeason;
   }
 
   public int getDuration() {
@@ -40,16 +52,33 @@ public final class Season {
 
   public void setRatings(final List<Double> ratings) {
     this.ratings = ratings;
+
+    ratingAverage = new RunningAverage();
+    for (Double value : ratings) {
+      ratingAverage.add(value);
+    }
+    invalidateSerialRating();
+  }
+
+  /**
+   * Sets the serial the season belongs to
+   * @param serial serial
+   */
+  void setSerial(final Serial serial) {
+    this.serial = serial;
   }
 
   /**
    * Adds a rating given by an user
-   * @param user user that rated the season
+   * @param userId user that rated the season
    * @param rating rating value
    */
-  public void addRatingByUser(final String user, final Double rating) {
-    ratingsByUser.put(user, rating);
+  public void addRatingByUser(final int userId, final Double rating) {
+    ratingsByUser.put(userId, rating);
     ratings.add(rating);
+
+    ratingAverage.add(rating);
+    invalidateSerialRating();
   }
 
   /**
@@ -57,29 +86,55 @@ public final class Season {
    *
    * @return ratings
    */
-  public HashMap<String, Double> getRatingsForUsers() {
+  public HashMap<Integer, Double> getRatingsForUsers() {
     return ratingsByUser;
   }
 
+  /**
+   * Gets the running average of the ratings
+   * @return ratings average
+   */
+  public RunningAverage getRatingAverage() {
+    return ratingAverage;
+  }
+
+  /**
+   * Replaces the ratings, when the season is restored from a snapshot
+   * @param ratingsList ratings, in the order they have been given
+   * @param ratingsFromUsers ratings given by users
+   * @param average running average of the ratings
+   */
+  public void restoreRatings(final List<Double> ratingsList,
+                             final Map<Integer, Double> ratingsFromUsers,
+                             final RunningAverage average) {
+    ratings = new ArrayList<>(ratingsList);
+    ratingsByUser = new HashMap<>();
+    ratingsFromUsers.forEach(ratingsByUser::put);
+    ratingAverage = average;
+    invalidateSerialRating();
+  }
+
   /**
    * Retrieve the season's rating
    * @return season's rating
    */
   public Double getRating() {
-    if (ratings.size() == 0) {
-      return (double) 0;
-    }
-
-    return ratings.stream().mapToDouble(Double::doubleValue).sum() / ratings.size();
+    return ratingAverage.getAverage();
   }
 
   /**
    * Checks if the season has been rated by a given user
-   * @param user user to check
+   * @param userId user to check
    * @return if the season has been rated by the given user
    */
-  public boolean isRatedByUser(final String user) {
-    return ratingsByUser.containsKey(user);
+  public boolean isRatedByUser(final int userId) {
+    return ratingsByUser.containsKey(userId);
+  }
+
+  private void invalidateSerialRating() {
+    if (serial != null) {
+      serial.invalidateRating();
+    }
   }
 
   @Override
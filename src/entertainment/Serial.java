@@ -8,20 +8,33 @@ import java.util.stream.Collectors;
 
 public class Serial extends Video {
     private ArrayList<Season> seasons;
+    private int duration;
+
+    private double rating;
+    private boolean isRatingOutdated;
 
     public Serial(
+            final int id,
             final String title,
             final int releaseYear,
             final ArrayList<Genre> genres,
             final ArrayList<String> cast,
             final ArrayList<Season> seasons) {
-        super(title, releaseYear, genres, cast);
+        super(id, title, releaseYear, genres, cast);
 
         this.seasons = new ArrayList<>(seasons);
+
+        // Durata sezoanelor nu se schimba pe parcursul rularii
+        for (Season season : this.seasons) {
+            season.setSerial(this);
+            duration += season.getDuration();
+        }
+        isRatingOutdated = true;
     }
 
-    public Serial(final SerialInputData serialInput) {
+    public Serial(final int id, final SerialInputData serialInput) {
         this(
+                id,
                 serialInput.getTitle(),
                 serialInput.getYear(),
                 new ArrayList<Genre>(
@@ -37,6 +50,16 @@ public class Serial extends Video {
                 serialInput.getSeasons());
     }
 
+    /**
+     * Retrieves the video's type
+     *
+     * @return serial
+     */
+    @Override
+    public VideoType getType() {
+        return VideoType.SERIAL;
+    }
+
     /**
      * Returns the seasons list
      *
@@ -63,17 +86,19 @@ public class Serial extends Video {
      */
     @Override
     public Double getRating() {
-        double rating = 0;
-
-        if (seasons == null || seasons.size() == 0) {
-            return (double) 0;
+        if (isRatingOutdated) {
+            rating = computeRating();
+            isRatingOutdated = false;
         }
 
-        for (Season season : seasons) {
-            rating += season.getRating();
-        }
+        return rating;
+    }
 
-        return rating / seasons.size();
+    /**
+     * Marks the cached rating as outdated, called when one of the seasons is rated
+     */
+    void invalidateRating() {
+        isRatingOutdated = true;
     }
 
     /**
@@ -81,13 +106,22 @@ public class Serial extends Video {
      *
      * @return serial's duration
      */
+    @Override
     public int getDuration() {
-        int duration = 0;
+        return duration;
+    }
+
+    private double computeRating() {
+        double sum = 0;
+
+        if (seasons == null || seasons.size() == 0) {
+            return 0;
+        }
 
         for (Season season : seasons) {
-          duration += season.getDuration();
+            sum += season.getRating();
         }
 
-        return duration;
+        return sum / seasons.size();
     }
 }
@@ -1,24 +1,32 @@
 package entertainment;
 
+import utils.Utils;
+
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Map;
 
 public abstract class Video {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private int id;
     private String title;
     private int releaseYear;
-    private ArrayList<Genre> genres;
+    private long genresMask;
     private ArrayList<String> cast;
-    private HashMap<String, Integer> views;
+    private HashMap<Integer, Integer> views;
+    private int viewsCount;
 
     public Video(
+            final int id,
             final String title,
             final int releaseYear,
             final ArrayList<Genre> genres,
             final ArrayList<String> cast) {
+        this.id = id;
         this.title = title;
         this.releaseYear = releaseYear;
-        this.genres = new ArrayList<>(genres);
+        this.genresMask = Utils.genresToMask(genres);
         this.cast = new ArrayList<>(cast);
 
         views = new HashMap<>();
@@ -27,27 +35,43 @@ public abstract class Video {
     /**
      * Add a view from user
      *
-     * @param username user that has watched the video
+     * @param userId user that has watched the video
      */
-    public void addViewer(final String username) {
-        if (views.containsKey(username)) {
-            views.put(username, views.get(username) + 1);
+    public void addViewer(final int userId) {
+        if (views.containsKey(userId)) {
+            views.put(userId, views.get(userId) + 1);
         } else {
-            views.put(username, 1);
+            views.put(userId, 1);
         }
+        viewsCount++;
     }
 
     /**
      * Add a number of views for user
      *
-     * @param username user that has watched the video
-     * @param count    number of views
+     * @param userId user that has watched the video
+     * @param count  number of views
      */
-    public void addViewsForUser(final String username, final Integer count) {
-        if (views.containsKey(username)) {
-            views.put(username, views.get(username) + count);
-        } else {
-            views.put(username, count);
+    public void addViewsForUser(final int userId, final Integer count) {
+        views.merge(userId, count, Integer::sum);
+        viewsCount += count;
+    }
+
+    /**
+     * Add the views of several users at once, with the views map sized for all of them
+     *
+     * @param userIds users that have watched the video
+     * @param counts  number of views of every user
+     */
+    public void addViewsForUsers(final int[] userIds, final int[] counts) {
+        if (views.isEmpty()) {
+            // Aceeasi capacitate ca dupa adaugarea pe rand, deci aceeasi ordine de parcurgere
+            views = new HashMap<>(Math.max(INITIAL_CAPACITY,
+                    (int) Math.ceil(userIds.length / LOAD_FACTOR)));
+        }
+
+        for (int i = 0; i < userIds.length; i++) {
+            addViewsForUser(userIds[i], counts[i]);
         }
     }
 
@@ -57,38 +81,41 @@ public abstract class Video {
      * @return number of views
      */
     public int getViewsCount() {
-        int totalViews = 0;
-
-        for (Map.Entry<String, Integer> pair : views.entrySet()) {
-            totalViews += pair.getValue();
-        }
-
-        return totalViews;
+        return viewsCount;
     }
 
     /**
      * Returns the views count for a given user
      *
-     * @param user given user
+     * @param userId given user
      * @return views count
      */
-    public int getUsersViews(final String user) {
-        if (!views.containsKey(user)) {
+    public int getUsersViews(final int userId) {
+        if (!views.containsKey(userId)) {
             return 0;
         }
 
-        return views.get(user);
+        return views.get(userId);
+    }
+
+    /**
+     * Returns the views count of every user that has watched the video
+     *
+     * @return HashMap<UserId, ViewsCount>
+     */
+    public HashMap<Integer, Integer> getViewsByUser() {
+        return views;
     }
 
     /**
      * Return if the video has been viewed by the given user
      *
-     * @param username given user
+     * @param userId given user
      * @return has been viewed by user
      */
-    public boolean hasBeenViewedByUser(final String username) {
-        return views.containsKey(username)
-                && views.get(username) >= 1;
+    public boolean hasBeenViewedByUser(final int userId) {
+        return views.containsKey(userId)
+                && views.get(userId) >= 1;
     }
 
     /**
@@ -100,6 +127,13 @@ public abstract class Video {
         return (double) 0;
     }
 
+    /**
+     * Retrieves the video's duration
+     *
+     * @return video's duration
+     */
+    public abstract int getDuration();
+
     /**
      * Retrieve the video's cast
      *
@@ -109,6 +143,22 @@ public abstract class Video {
         return cast;
     }
 
+    /**
+     * Retrieves the video's type
+     *
+     * @return movie or serial
+     */
+    public abstract VideoType getType();
+
+    /**
+     * Retrieves the video's id
+     *
+     * @return video's id
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      * Retrieves the video's name
      *
@@ -128,11 +178,41 @@ public abstract class Video {
     }
 
     /**
-     * Retrieves the video's genres
+     * Retrieves the video's genres as a bitmask, with the bit genre.ordinal() set for every genre
+     *
+     * @return video's genres bitmask
+     */
+    public long getGenresMask() {
+        return genresMask;
+    }
+
+    /**
+     * Checks if the video has the given genre
+     *
+     * @param genre given genre, null for a genre string without a Genre value
+     * @return if the video has the genre
+     */
+    public boolean hasGenre(final Genre genre) {
+        return (genresMask & Utils.genreToBit(genre)) != 0;
+    }
+
+    /**
+     * Checks if the video has all the genres from a bitmask
+     *
+     * @param mask genres bitmask, built with Utils.genresToMask
+     * @return if the video has all the genres
+     */
+    public boolean hasAllGenres(final long mask) {
+        return (genresMask & mask) == mask;
+    }
+
+    /**
+     * Checks if the video has at least one of the genres from a bitmask
      *
-     * @return video's video's genres
+     * @param mask genres bitmask, built with Utils.genresToMask
+     * @return if the video has any of the genres
      */
-    public ArrayList<Genre> getGenres() {
-        return genres;
+    public boolean hasAnyGenre(final long mask) {
+        return (genresMask & mask) != 0;
     }
 }
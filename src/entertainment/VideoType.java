@@ -0,0 +1,6 @@
+package entertainment;
+
+public enum VideoType {
+    MOVIE,
+    SERIAL
+}
@@ -0,0 +1,76 @@
+package fileio;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Actions parsed on demand from the actions array of an input file: only the action returned
+ * by next() is kept in memory, whatever the number of actions. The parser is closed when the
+ * end of the array is reached or when the stream is closed, so the stream should be used in a
+ * try-with-resources block, in case the actions are not all read
+ */
+public final class ActionStream implements Iterator<ActionInputData>, Closeable {
+    private final JsonParser parser;
+    private final int size;
+    private ActionInputData nextAction;
+    private boolean finished;
+
+    /**
+     * @param parser parser positioned on the START_ARRAY token of the actions
+     * @param size   default query limit
+     */
+    ActionStream(final JsonParser parser, final int size) {
+        this.parser = parser;
+        this.size = size;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (nextAction == null && !finished) {
+            try {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    close();
+                    break;
+                }
+                // Actiunile de tip necunoscut sunt sarite, ca la citirea completa
+                nextAction = JacksonInputLoader.ActionFields.read(parser).toActionInputData(size);
+            } catch (IOException e) {
+                e.printStackTrace();
+                close();
+            }
+        }
+
+        return nextAction != null;
+    }
+
+    @Override
+    public ActionInputData next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        ActionInputData action = nextAction;
+        nextAction = null;
+
+        return action;
+    }
+
+    @Override
+    public void close() {
+        if (finished) {
+            return;
+        }
+
+        finished = true;
+        try {
+            parser.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -28,6 +28,10 @@ public final class Input {
      * List of serials aka tv shows
      */
     private final List<SerialInputData> serialsData;
+    /**
+     * Commands parsed on demand, when they are not read in a list
+     */
+    private final ActionStream commandsStream;
 
     public Input() {
         this.actorsData = null;
@@ -35,6 +39,7 @@ public final class Input {
         this.commandsData = null;
         this.moviesData = null;
         this.serialsData = null;
+        this.commandsStream = null;
     }
 
     public Input(final List<ActorInputData> actors, final List<UserInputData> users,
@@ -46,6 +51,19 @@ public final class Input {
         this.commandsData = commands;
         this.moviesData = movies;
         this.serialsData = serials;
+        this.commandsStream = null;
+    }
+
+    public Input(final List<ActorInputData> actors, final List<UserInputData> users,
+                 final ActionStream commandsStream,
+                 final List<MovieInputData> movies,
+                 final List<SerialInputData> serials) {
+        this.actorsData = actors;
+        this.usersData = users;
+        this.commandsData = null;
+        this.moviesData = movies;
+        this.serialsData = serials;
+        this.commandsStream = commandsStream;
     }
 
     public List<ActorInputData> getActors() {
@@ -60,6 +78,16 @@ public final class Input {
         return commandsData;
     }
 
+    /**
+     * Retrieves the commands that are parsed on demand; the stream keeps the input file open
+     * until it is closed
+     *
+     * @return stream of the commands or null if they have been read in a list
+     */
+    public ActionStream getCommandsStream() {
+        return commandsStream;
+    }
+
     public List<MovieInputData> getMovies() {
         return moviesData;
     }
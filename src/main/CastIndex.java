@@ -0,0 +1,155 @@
+package main;
+
+import common.RoaringBitmap;
+import common.RunningAverage;
+
+import java.util.ArrayList;
+
+/**
+ * Links the videos with the actors from their cast lists: the actors of every video, the videos
+ * of every actor and, for every actor, the running average of the ratings of their rated videos
+ */
+public final class CastIndex {
+    private final ArrayList<int[]> actorsByVideo;
+    private final ArrayList<RoaringBitmap> videosByActor;
+    private final ArrayList<RunningAverage> ratingsByActor;
+    private final RoaringBitmap ratedActors;
+
+    public CastIndex() {
+        actorsByVideo = new ArrayList<>();
+        videosByActor = new ArrayList<>();
+        ratingsByActor = new ArrayList<>();
+        ratedActors = new RoaringBitmap();
+    }
+
+    /**
+     * Adds the cast of a video to the index
+     *
+     * @param videoId  video id
+     * @param actorIds ids of the actors from the video's cast
+     * @param rating   current rating of the video, 0 if it is not rated
+     */
+    public void add(final int videoId, final int[] actorIds, final double rating) {
+        while (actorsByVideo.size() <= videoId) {
+            actorsByVideo.add(null);
+        }
+        actorsByVideo.set(videoId, actorIds);
+
+        for (int actorId : actorIds) {
+            while (videosByActor.size() <= actorId) {
+                videosByActor.add(new RoaringBitmap());
+                ratingsByActor.add(new RunningAverage());
+            }
+            videosByActor.get(actorId).add(videoId);
+        }
+
+        updateRating(videoId, 0, rating);
+    }
+
+    /**
+     * Updates the averages of the actors from a video's cast after the video's rating changed
+     *
+     * @param videoId   video id
+     * @param oldRating previous rating of the video, 0 if it was not rated
+     * @param newRating new rating of the video, 0 if it is not rated
+     */
+    public void updateRating(final int videoId, final double oldRating,
+                             final double newRating) {
+        if (videoId >= actorsByVideo.size() || actorsByVideo.get(videoId) == null
+                || oldRating == newRating) {
+            return;
+        }
+
+        for (int actorId : actorsByVideo.get(videoId)) {
+            RunningAverage average = ratingsByActor.get(actorId);
+
+            if (oldRating == 0) {
+                average.add(newRating);
+            } else if (newRating == 0) {
+                average.remove(oldRating);
+            } else {
+                average.replace(oldRating, newRating);
+            }
+
+            if (average.getCount() > 0) {
+                ratedActors.add(actorId);
+            } else {
+                ratedActors.remove(actorId);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the videos an actor appears in. The returned bitmap must not be modified
+     *
+     * @param actorId actor id
+     * @return ids of the videos
+     */
+    public RoaringBitmap getVideos(final int actorId) {
+        if (actorId < 0 || actorId >= videosByActor.size()) {
+            return new RoaringBitmap();
+        }
+
+        return videosByActor.get(actorId);
+    }
+
+    /**
+     * Retrieves the average rating of an actor's rated videos
+     *
+     * @param actorId actor id
+     * @return average or 0 if none of the actor's videos is rated
+     */
+    public double getAverage(final int actorId) {
+        if (actorId < 0 || actorId >= ratingsByActor.size()) {
+            return 0;
+        }
+
+        return ratingsByActor.get(actorId).getAverage();
+    }
+
+    /**
+     * Retrieves the number of actors the index keeps averages for
+     *
+     * @return number of actor ids, from 0
+     */
+    int getActorsCount() {
+        return ratingsByActor.size();
+    }
+
+    /**
+     * Retrieves the running average of an actor's rated videos
+     *
+     * @param actorId actor id, less than getActorsCount()
+     * @return ratings average
+     */
+    RunningAverage getRatings(final int actorId) {
+        return ratingsByActor.get(actorId);
+    }
+
+    /**
+     * Replaces the running average of an actor's rated videos, when the index is restored
+     * from a snapshot
+     *
+     * @param actorId actor id, less than getActorsCount()
+     * @param average ratings average
+     */
+    void restoreRatings(final int actorId, final RunningAverage average) {
+        ratingsByActor.set(actorId, average);
+
+        if (average.getCount() > 0) {
+            ratedActors.add(actorId);
+        } else {
+            ratedActors.remove(actorId);
+        }
+    }
+
+    /**
+     * Retrieves the actors that have at least one rated video. The returned bitmap must not be
+     * modified
+     *
+     * @return ids of the actors
+     */
+    public RoaringBitmap getRatedActors() {
+        return ratedActors;
+    }
+}
@@ -0,0 +1,171 @@
+package main;
+
+import entertainment.Genre;
+import entertainment.Video;
+import entertainment.VideoType;
+import utils.Utils;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays copy of the videos' fields used by the queries and recommendations. Every
+ * column is a primitive array indexed by video id, so that a full scan reads contiguous memory
+ * instead of following pointers through the Movie and Serial objects, and the accessors work on
+ * ids, so a scan does not create an object for every row
+ */
+public final class ColumnarCatalog {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final VideoType[] TYPES = VideoType.values();
+    private static final byte NO_VIDEO = -1;
+
+    private byte[] types;
+    private String[] titles;
+    private int[] years;
+    private int[] durations;
+    private long[] genres;
+    private double[] ratings;
+    private long[] views;
+    private int size;
+
+    public ColumnarCatalog() {
+        types = new byte[INITIAL_CAPACITY];
+        Arrays.fill(types, NO_VIDEO);
+        titles = new String[INITIAL_CAPACITY];
+        years = new int[INITIAL_CAPACITY];
+        durations = new int[INITIAL_CAPACITY];
+        genres = new long[INITIAL_CAPACITY];
+        ratings = new double[INITIAL_CAPACITY];
+        views = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds the row of a video
+     *
+     * @param video video
+     */
+    public void add(final Video video) {
+        int id = video.getId();
+
+        ensureCapacity(id + 1);
+        size = Math.max(size, id + 1);
+
+        types[id] = (byte) video.getType().ordinal();
+        titles[id] = video.getTitle();
+        years[id] = video.getReleaseYear();
+        durations[id] = video.getDuration();
+        genres[id] = video.getGenresMask();
+        update(video);
+    }
+
+    /**
+     * Updates the fields that change while the actions are executed (rating and views)
+     *
+     * @param video video
+     */
+    public void update(final Video video) {
+        ratings[video.getId()] = video.getRating();
+        views[video.getId()] = video.getViewsCount();
+    }
+
+    /**
+     * Retrieves the number of rows, the ids of the videos are smaller than it
+     *
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the type of the video with the given id
+     *
+     * @param id video id
+     * @return type of video or null if there is no video with this id
+     */
+    public VideoType getType(final int id) {
+        if (types[id] == NO_VIDEO) {
+            return null;
+        }
+
+        return TYPES[types[id]];
+    }
+
+    /**
+     * Retrieves the title of the video with the given id
+     *
+     * @param id video id
+     * @return title
+     */
+    public String getTitle(final int id) {
+        return titles[id];
+    }
+
+    /**
+     * Retrieves the release year of the video with the given id
+     *
+     * @param id video id
+     * @return release year
+     */
+    public int getYear(final int id) {
+        return years[id];
+    }
+
+    /**
+     * Retrieves the duration of the video with the given id
+     *
+     * @param id video id
+     * @return duration
+     */
+    public int getDuration(final int id) {
+        return durations[id];
+    }
+
+    /**
+     * Checks if the video with the given id has a genre
+     *
+     * @param id    video id
+     * @param genre genre, null for a genre string without a Genre value
+     * @return if the video has the genre
+     */
+    public boolean hasGenre(final int id, final Genre genre) {
+        return (genres[id] & Utils.genreToBit(genre)) != 0;
+    }
+
+    /**
+     * Retrieves the rating of the video with the given id
+     *
+     * @param id video id
+     * @return rating
+     */
+    public double getRating(final int id) {
+        return ratings[id];
+    }
+
+    /**
+     * Retrieves the number of views of the video with the given id
+     *
+     * @param id video id
+     * @return number of views
+     */
+    public long getViews(final int id) {
+        return views[id];
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity <= types.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, types.length * 2);
+        int oldCapacity = types.length;
+
+        types = Arrays.copyOf(types, newCapacity);
+        Arrays.fill(types, oldCapacity, newCapacity, NO_VIDEO);
+        titles = Arrays.copyOf(titles, newCapacity);
+        years = Arrays.copyOf(years, newCapacity);
+        durations = Arrays.copyOf(durations, newCapacity);
+        genres = Arrays.copyOf(genres, newCapacity);
+        ratings = Arrays.copyOf(ratings, newCapacity);
+        views = Arrays.copyOf(views, newCapacity);
+    }
+}
@@ -0,0 +1,621 @@
+package main;
+
+import actions.Command;
+import common.Constants;
+import fileio.ActionInputData;
+import fileio.Writer;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead log of the commands that change the database (view, favorite,
+ * rating).
+ * <p>
+ * Every command is appended to the log before it is executed. The records are kept in a buffer
+ * and written and forced to disk together (group commit): when a group of records is complete
+ * or, at the latest, a given time after the previous commit. A crash loses at most the
+ * commands appended since the last commit; forcing every command to disk is the special case
+ * of groups of one record. A failed write is handled like a crash: the log is cut back to the
+ * last commit and refuses the next commands, so that no command is executed without being
+ * logged.
+ * <p>
+ * Every commit ends its group with a commit marker, forced to disk together with the group,
+ * which keeps the position the group starts at and the CRC32 of its records. When the log is
+ * opened, the commands of the groups with a valid marker are executed again over the database,
+ * which must be in the state the log has been started from: the same input read again or a
+ * snapshot written while the log was open, which keeps the position the log had reached, so
+ * that only the commands after that position are executed. The log is then cut after the last
+ * valid marker: a crash in the middle of a group may leave a torn record followed by intact
+ * records, but none of them has been committed. A damaged record followed by a valid group
+ * stops the opening with an error, since dropping it would also drop committed commands.
+ * <p>
+ * A checkpoint writes a snapshot and empties the log, which keeps the number of the checkpoint
+ * it continues from. After a crash between the two, the log is one checkpoint behind the
+ * snapshot and its commands, already in the snapshot, are dropped instead of executed twice.
+ * The log starts with the checkpoint number; every record is kept as: payload length, CRC32
+ * of the payload, payload. A commit marker is kept as: -1, CRC32 of the marker, position of
+ * the group, CRC32 of the group
+ */
+public final class CommandLog implements Closeable {
+    private static final int LOG_HEADER_SIZE = Long.BYTES;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int COMMIT_MARKER = -1;
+    private static final int MARKER_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final Database database;
+    private final int groupSize;
+    private final ScheduledExecutorService committer;
+    private final ByteArrayOutputStream payload;
+    private final DataOutputStream payloadOut;
+    private final CRC32 checksum;
+    /**
+     * CRC32 of the records appended since the last commit
+     */
+    private final CRC32 groupChecksum;
+    private ByteBuffer buffer;
+    /**
+     * Records appended since the last commit
+     */
+    private int pending;
+    private long commits;
+    private long checkpoint;
+    /**
+     * Size of the log at the last commit
+     */
+    private long committedSize;
+    /**
+     * Error the log has failed with, or null
+     */
+    private IOException failure;
+
+    private CommandLog(final FileChannel channel, final Database database, final long size,
+                       final int groupSize, final long groupDelayMillis) {
+        this.channel = channel;
+        this.database = database;
+        this.checkpoint = database.getCheckpoint();
+        this.committedSize = size;
+        this.groupSize = groupSize;
+        this.payload = new ByteArrayOutputStream();
+        this.payloadOut = new DataOutputStream(payload);
+        this.checksum = new CRC32();
+        this.groupChecksum = new CRC32();
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        if (groupDelayMillis > 0) {
+            committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "command-log-commit");
+                thread.setDaemon(true);
+                return thread;
+            });
+            committer.scheduleWithFixedDelay(this::commitQuietly, groupDelayMillis,
+                    groupDelayMillis, TimeUnit.MILLISECONDS);
+        } else {
+            committer = null;
+        }
+    }
+
+    /**
+     * Opens a log, creating it if it does not exist, executes its commands again over the
+     * database and attaches the log to the database, so that the next commands are appended
+     * to it
+     *
+     * @param path             file of the log
+     * @param database         database, in the state the log has been started from or
+     *                         restored from a snapshot written while the log was open
+     * @param writer           output writer, used to build the results of the replayed
+     *                         commands, which are discarded
+     * @param groupSize        number of records forced to disk together
+     * @param groupDelayMillis maximum time a record waits to be forced to disk, 0 to wait only
+     *                         for its group to be complete
+     * @return opened log
+     * @throws IOException in case of exceptions to reading / writing, if a record of a
+     *                     committed group is damaged or if the log does not continue the
+     *                     database
+     * @throws IllegalStateException if the database already has a log
+     */
+    public static CommandLog open(final Path path, final Database database, final Writer writer,
+                                  final int groupSize, final long groupDelayMillis)
+            throws IOException {
+        if (groupSize < 1) {
+            throw new IllegalArgumentException(Integer.toString(groupSize));
+        }
+        if (database.getCommandLog() != null) {
+            throw new IllegalStateException("The database already has a command log");
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long end;
+        try {
+            long start = start(channel, database);
+            end = replay(channel, start, database, writer);
+
+            // Inregistrarile de dupa ultimul marcaj nu au fost confirmate si sunt eliminate
+            channel.truncate(end);
+            channel.position(end);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        CommandLog log = new CommandLog(channel, database, end, groupSize, groupDelayMillis);
+        database.setCommandLog(log);
+
+        return log;
+    }
+
+    /**
+     * Checks that a log continues a database
+     *
+     * @return position of the first record not executed over the database
+     * @throws IOException if the log does not continue the database
+     */
+    private static long start(final FileChannel channel, final Database database)
+            throws IOException {
+        long expected = database.getCheckpoint();
+
+        // Jurnal nou sau antet scris pe jumatate de un checkpoint intrerupt
+        if (channel.size() < LOG_HEADER_SIZE) {
+            reset(channel, expected);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+        while (header.hasRemaining()) {
+            channel.read(header, header.position());
+        }
+        long found = header.getLong(0);
+
+        if (found + 1 == expected && database.getLogOffset() == 0) {
+            // Checkpoint intrerupt dupa scrierea snapshot-ului: comenzile sunt deja in el
+            reset(channel, expected);
+        } else if (found != expected) {
+            throw new IOException("The command log continues checkpoint " + found
+                    + ", the database continues checkpoint " + expected);
+        }
+
+        long start = LOG_HEADER_SIZE + database.getLogOffset();
+        if (start > channel.size()) {
+            throw new IOException("The command log has " + (channel.size() - LOG_HEADER_SIZE)
+                    + " bytes of records, the database has executed "
+                    + database.getLogOffset());
+        }
+
+        return start;
+    }
+
+    /**
+     * Empties a log and forces its new checkpoint number to disk
+     *
+     * @return size of the emptied log
+     */
+    private static long reset(final FileChannel channel, final long checkpoint)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE).putLong(0, checkpoint);
+
+        channel.truncate(0);
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(false);
+
+        return LOG_HEADER_SIZE;
+    }
+
+    /**
+     * Executes again the commands of the committed groups from a log, from a given position
+     *
+     * @return position after the last commit marker
+     * @throws IOException if a damaged record is followed by a committed group
+     */
+    private static long replay(final FileChannel channel, final long start,
+                               final Database database, final Writer writer)
+            throws IOException {
+        channel.position(start);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(channel), BUFFER_SIZE));
+        CRC32 crc = new CRC32();
+        CRC32 groupCrc = new CRC32();
+        List<byte[]> group = new ArrayList<>();
+        long size = channel.size();
+        long position = start;
+        long committed = start;
+
+        while (size - position >= HEADER_SIZE) {
+            int length = in.readInt();
+            int expectedChecksum = in.readInt();
+
+            if (length == COMMIT_MARKER) {
+                if (size - position - HEADER_SIZE < MARKER_SIZE) {
+                    break;
+                }
+
+                byte[] marker = new byte[MARKER_SIZE];
+                in.readFully(marker);
+                ByteBuffer fields = ByteBuffer.wrap(marker);
+                crc.reset();
+                crc.update(marker);
+
+                if ((int) crc.getValue() != expectedChecksum || fields.getLong() != committed
+                        || fields.getInt() != (int) groupCrc.getValue()) {
+                    break;
+                }
+
+                for (byte[] record : group) {
+                    try {
+                        Command.execute(database, decode(record), writer);
+                    } catch (RuntimeException e) {
+                        // O comanda care a esuat la prima executie esueaza la fel, fara sa
+                        // modifice baza de date; jurnalul poate fi deschis in continuare
+                    }
+                }
+                group.clear();
+                groupCrc.reset();
+                position += HEADER_SIZE + MARKER_SIZE;
+                committed = position;
+                continue;
+            }
+
+            // Inregistrarea depaseste sfarsitul fisierului: a fost scrisa pe jumatate
+            if (length <= 0 || length > size - position - HEADER_SIZE) {
+                break;
+            }
+
+            byte[] record = new byte[length];
+            in.readFully(record);
+            crc.reset();
+            crc.update(record);
+            if ((int) crc.getValue() != expectedChecksum) {
+                break;
+            }
+
+            groupCrc.update(ByteBuffer.allocate(HEADER_SIZE).putInt(length)
+                    .putInt(expectedChecksum).array());
+            groupCrc.update(record);
+            group.add(record);
+            position += HEADER_SIZE + length;
+        }
+
+        if (committed < size && hasCommitAfter(channel, committed)) {
+            throw new IOException("Damaged command log record after offset " + committed
+                    + " of " + size + " bytes, followed by a committed group; replaying would"
+                    + " drop the " + (size - committed) + " bytes from it to the end of the log");
+        }
+
+        return committed;
+    }
+
+    /**
+     * Checks if a log has a valid commit marker after a position, whose group starts after
+     * that position too
+     */
+    private static boolean hasCommitAfter(final FileChannel channel, final long from)
+            throws IOException {
+        channel.position(from);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(channel), BUFFER_SIZE));
+        long size = channel.size();
+        int last = 0;
+
+        // Cauta fiecare aparitie a valorii -1, care poate incepe un marcaj
+        for (long position = from; position < size; position++) {
+            last = (last << Byte.SIZE) | in.readUnsignedByte();
+
+            long marker = position + 1 - Integer.BYTES;
+            if (marker >= from && last == COMMIT_MARKER
+                    && isCommitMarker(channel, marker, from)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if a commit marker at a position is valid: the marker and the group it ends,
+     * which must start after a given position, have the CRC32 kept in the marker
+     */
+    private static boolean isCommitMarker(final FileChannel channel, final long position,
+                                          final long from) throws IOException {
+        if (channel.size() - position < HEADER_SIZE + MARKER_SIZE) {
+            return false;
+        }
+
+        ByteBuffer marker = read(channel, position + Integer.BYTES, Integer.BYTES + MARKER_SIZE);
+        int expectedChecksum = marker.getInt();
+        CRC32 crc = new CRC32();
+        crc.update(marker.array(), Integer.BYTES, MARKER_SIZE);
+        if ((int) crc.getValue() != expectedChecksum) {
+            return false;
+        }
+
+        long groupStart = marker.getLong();
+        int groupChecksum = marker.getInt();
+        if (groupStart < from || groupStart > position) {
+            return false;
+        }
+
+        crc.reset();
+        for (long chunk = groupStart; chunk < position; chunk += BUFFER_SIZE) {
+            crc.update(read(channel, chunk, (int) Math.min(BUFFER_SIZE, position - chunk)));
+        }
+
+        return (int) crc.getValue() == groupChecksum;
+    }
+
+    /**
+     * Reads bytes of a file from a given position, without moving the position of the channel
+     */
+    private static ByteBuffer read(final FileChannel channel, final long position,
+                                   final int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, position + bytes.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+
+        return bytes.flip();
+    }
+
+    /**
+     * Appends a command to the log; the command is forced to disk when its group is complete
+     *
+     * @param command view, favorite or rating command
+     * @throws IOException in case of exceptions to writing, or if the log has failed before;
+     *                     the command must not be executed then
+     */
+    public synchronized void append(final ActionInputData command) throws IOException {
+        checkNotFailed();
+
+        payload.reset();
+        payloadOut.writeInt(command.getActionId());
+        DatabaseSnapshot.writeString(payloadOut, command.getType());
+        DatabaseSnapshot.writeString(payloadOut, command.getUsername());
+        DatabaseSnapshot.writeString(payloadOut, command.getTitle());
+        payloadOut.writeDouble(command.getGrade());
+        payloadOut.writeInt(command.getSeasonNumber());
+
+        byte[] record = payload.toByteArray();
+        checksum.reset();
+        checksum.update(record);
+
+        int recordSize = HEADER_SIZE + record.length;
+        try {
+            if (buffer.remaining() < recordSize) {
+                writeBuffer();
+                if (buffer.capacity() < recordSize) {
+                    buffer = ByteBuffer.allocate(recordSize);
+                }
+            }
+        } catch (IOException e) {
+            fail(e);
+            throw e;
+        }
+        buffer.putInt(record.length);
+        buffer.putInt((int) checksum.getValue());
+        buffer.put(record);
+        groupChecksum.update(buffer.array(), buffer.position() - recordSize, recordSize);
+
+        pending++;
+        if (pending >= groupSize) {
+            commit();
+        }
+    }
+
+    /**
+     * Writes the records appended since the last commit, followed by a commit marker, and
+     * forces them to disk
+     *
+     * @throws IOException in case of exceptions to writing
+     */
+    public synchronized void commit() throws IOException {
+        checkNotFailed();
+        if (pending == 0) {
+            return;
+        }
+
+        try {
+            ByteBuffer marker = ByteBuffer.allocate(MARKER_SIZE)
+                    .putLong(committedSize).putInt((int) groupChecksum.getValue());
+            checksum.reset();
+            checksum.update(marker.array());
+
+            if (buffer.remaining() < HEADER_SIZE + MARKER_SIZE) {
+                writeBuffer();
+            }
+            buffer.putInt(COMMIT_MARKER);
+            buffer.putInt((int) checksum.getValue());
+            buffer.put(marker.array());
+
+            writeBuffer();
+            channel.force(false);
+            committedSize = channel.position();
+        } catch (IOException e) {
+            fail(e);
+            throw e;
+        }
+        pending = 0;
+        groupChecksum.reset();
+        commits++;
+    }
+
+    /**
+     * Writes a snapshot of the database and empties the log, since the snapshot contains its
+     * commands. No command must be executed over the database meanwhile
+     *
+     * @param snapshot file the snapshot is written to; an older snapshot is replaced only
+     *                 after the new one has been forced to disk
+     * @throws IOException in case of exceptions to writing
+     */
+    public synchronized void checkpoint(final Path snapshot) throws IOException {
+        commit();
+
+        Path written = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        DatabaseSnapshot.write(database, written, checkpoint + 1, 0);
+        try (FileChannel file = FileChannel.open(written, StandardOpenOption.WRITE)) {
+            file.force(true);
+        }
+        Files.move(written, snapshot, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        try {
+            committedSize = reset(channel, checkpoint + 1);
+            channel.position(committedSize);
+            groupChecksum.reset();
+        } catch (IOException e) {
+            fail(e);
+            throw e;
+        }
+        checkpoint++;
+    }
+
+    /**
+     * Retrieves the checkpoint the log continues from
+     *
+     * @return 0 if the log has been started over the input, else the number of checkpoints
+     */
+    synchronized long getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Retrieves the size of the records committed after the checkpoint
+     *
+     * @return size in bytes
+     */
+    synchronized long getRecordsSize() {
+        return committedSize - LOG_HEADER_SIZE;
+    }
+
+    /**
+     * Retrieves the number of times the log has been forced to disk
+     *
+     * @return number of commits
+     */
+    public synchronized long getCommits() {
+        return commits;
+    }
+
+    /**
+     * Commits the last records, closes the log and detaches it from the database, which keeps
+     * the position the log has reached
+     *
+     * @throws IOException in case of exceptions to writing
+     */
+    @Override
+    public void close() throws IOException {
+        if (committer != null) {
+            committer.shutdown();
+        }
+
+        synchronized (this) {
+            try {
+                if (failure == null) {
+                    commit();
+                }
+            } finally {
+                channel.close();
+
+                database.setCheckpoint(checkpoint);
+                database.setLogOffset(getRecordsSize());
+                if (database.getCommandLog() == this) {
+                    database.setCommandLog(null);
+                }
+            }
+        }
+    }
+
+    private void commitQuietly() {
+        try {
+            synchronized (this) {
+                if (channel.isOpen() && failure == null) {
+                    commit();
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void checkNotFailed() throws IOException {
+        if (failure != null) {
+            throw new IOException("The command log has failed", failure);
+        }
+    }
+
+    /**
+     * Drops the records appended since the last commit, as a crash would, and marks the log as
+     * failed
+     */
+    private void fail(final IOException error) {
+        failure = error;
+        buffer.clear();
+        pending = 0;
+        groupChecksum.reset();
+
+        try {
+            channel.truncate(committedSize);
+        } catch (IOException e) {
+            error.addSuppressed(e);
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static ActionInputData decode(final byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+
+        int actionId = in.readInt();
+        String type = readString(in);
+        String username = readString(in);
+        String title = readString(in);
+        double grade = in.readDouble();
+
+        return new ActionInputData(actionId, Constants.COMMAND, type, username, title, grade,
+                in.readInt());
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        int length = in.readInt();
+
+        if (length == DatabaseSnapshot.NULL_LENGTH) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
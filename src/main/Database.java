@@ -1,21 +1,49 @@
 package main;
 
 import actor.Actor;
+import actor.ActorsAwards;
+import common.Dictionary;
+import common.ResultSink;
+import common.RoaringBitmap;
 import entertainment.Movie;
 import entertainment.Serial;
+import entertainment.Video;
+import entertainment.VideoType;
 import user.User;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Database {
-    private HashMap<String, Movie> movies;
-    private HashMap<String, Serial> serials;
-    private HashMap<String, Actor> actors;
-    private HashMap<String, User> users;
+    private HashMap<Integer, Movie> movies;
+    private HashMap<Integer, Serial> serials;
+    private HashMap<Integer, Actor> actors;
+    private HashMap<Integer, User> users;
 
-    private List<String> videosOrder;
+    private ArrayList<Video> videos;
+    private List<Integer> videosOrder;
+    private RoaringBitmap videosBitmap;
+    private HashMap<Integer, Integer> favoritesCount;
+    private ColumnarCatalog catalog;
+    private VideoIndex moviesIndex;
+    private VideoIndex serialsIndex;
+    private CastIndex castIndex;
+    private RoaringBitmap actorsBitmap;
+    private EnumMap<ActorsAwards, RoaringBitmap> actorsByAward;
+    private RoaringBitmap actorsWithUnknownAwards;
+    private TermIndex actorsByTerm;
+
+    private ResultSink resultSink;
+    private CommandLog commandLog;
+    private long checkpoint;
+    private long logOffset;
+
+    private Dictionary videoIds;
+    private Dictionary userIds;
+    private Dictionary actorIds;
 
     public Database() {
         movies = new HashMap<>();
@@ -23,46 +51,366 @@ public class Database {
         actors = new HashMap<>();
         users = new HashMap<>();
 
+        videos = new ArrayList<>();
         videosOrder = new ArrayList<>();
+        videosBitmap = new RoaringBitmap();
+        favoritesCount = new HashMap<>();
+        catalog = new ColumnarCatalog();
+        moviesIndex = new VideoIndex();
+        serialsIndex = new VideoIndex();
+        castIndex = new CastIndex();
+        actorsBitmap = new RoaringBitmap();
+        actorsByAward = new EnumMap<>(ActorsAwards.class);
+        actorsWithUnknownAwards = new RoaringBitmap();
+        actorsByTerm = new TermIndex();
+
+        resultSink = new ResultSink();
+
+        videoIds = new Dictionary();
+        userIds = new Dictionary();
+        actorIds = new Dictionary();
     }
 
     /**
      * Get movies from database
-     * @return HashMap<MovieTitle, Movie>
+     * @return HashMap<MovieId, Movie>
      */
-    public HashMap<String, Movie> getMovies() {
+    public HashMap<Integer, Movie> getMovies() {
         return movies;
     }
 
     /**
      * Get serials from database
-     * @return HashMap<SerialTitle, Serial>
+     * @return HashMap<SerialId, Serial>
      */
-    public HashMap<String, Serial> getSerials() {
+    public HashMap<Integer, Serial> getSerials() {
         return serials;
     }
 
     /**
      * Get actors from database
-     * @return HashMap<ActorName, Actor>
+     * @return HashMap<ActorId, Actor>
      */
-    public HashMap<String, Actor> getActors() {
+    public HashMap<Integer, Actor> getActors() {
         return actors;
     }
 
     /**
      * Get users from database
-     * @return HashMap<UserName, User>
+     * @return HashMap<UserId, User>
      */
-    public HashMap<String, User> getUsers() {
+    public HashMap<Integer, User> getUsers() {
         return users;
     }
 
+    /**
+     * Adds an actor to the database
+     * @param actor actor
+     */
+    public void addActor(final Actor actor) {
+        putActor(actor);
+        actorsByTerm.add(actor.getId(), actor.getCareerDescription());
+    }
+
+    /**
+     * Adds actors to the database, with the words of their career descriptions already indexed
+     * @param actorList actors, in the order they are read
+     * @param terms     index of the words from the actors' career descriptions
+     */
+    public void addActors(final List<Actor> actorList, final TermIndex terms) {
+        for (Actor actor : actorList) {
+            putActor(actor);
+        }
+        actorsByTerm.addAll(terms);
+    }
+
+    private void putActor(final Actor actor) {
+        actors.put(actor.getId(), actor);
+        actorsBitmap.add(actor.getId());
+
+        int knownAwards = 0;
+        for (Map.Entry<ActorsAwards, Integer> award : actor.getAwards().entrySet()) {
+            actorsByAward.computeIfAbsent(award.getKey(), a -> new RoaringBitmap())
+                    .add(actor.getId());
+            knownAwards += award.getValue();
+        }
+
+        // Premiile necunoscute nu apar in map, dar sunt numarate in total
+        if (actor.getAwardsCount() > knownAwards) {
+            actorsWithUnknownAwards.add(actor.getId());
+        }
+    }
+
+    /**
+     * Get the ids of all the actors from database
+     * @return Bitmap<ActorId>
+     */
+    public RoaringBitmap getActorsBitmap() {
+        return actorsBitmap;
+    }
+
+    /**
+     * Get the ids of the actors that have received an award. The returned bitmap must not be
+     * modified
+     * @param award award, null for the awards stringToAwards does not map
+     * @return Bitmap<ActorId>
+     */
+    public RoaringBitmap getActorsWithAward(final ActorsAwards award) {
+        if (award == null) {
+            return actorsWithUnknownAwards;
+        }
+        if (!actorsByAward.containsKey(award)) {
+            return new RoaringBitmap();
+        }
+
+        return actorsByAward.get(award);
+    }
+
+    /**
+     * Get the ids of the actors whose career description contains a word. The returned bitmap
+     * must not be modified
+     * @param term lowercase word
+     * @return Bitmap<ActorId>
+     */
+    public RoaringBitmap getActorsWithTerm(final String term) {
+        return actorsByTerm.get(term);
+    }
+
+    /**
+     * Adds a movie to the database
+     * @param movie movie
+     */
+    public void addMovie(final Movie movie) {
+        movies.put(movie.getId(), movie);
+        moviesIndex.add(movie);
+        addVideo(movie);
+    }
+
+    /**
+     * Adds a serial to the database
+     * @param serial serial
+     */
+    public void addSerial(final Serial serial) {
+        serials.put(serial.getId(), serial);
+        serialsIndex.add(serial);
+        addVideo(serial);
+    }
+
+    /**
+     * Get a video (movie or serial) from database
+     * @param id video id
+     * @return video or null if there is no video with the given id
+     */
+    public Video getVideo(final int id) {
+        if (id < 0 || id >= videos.size()) {
+            return null;
+        }
+
+        return videos.get(id);
+    }
+
+    /**
+     * Get a video (movie or serial) from database
+     * @param title video title
+     * @return video or null if there is no video with the given title
+     */
+    public Video getVideo(final String title) {
+        return getVideo(videoIds.getId(title));
+    }
+
+    /**
+     * Get the log the commands that change the database are appended to
+     * @return log or null if the commands are not logged
+     */
+    public CommandLog getCommandLog() {
+        return commandLog;
+    }
+
+    /**
+     * Sets the log the commands that change the database are appended to
+     * @param commandLog log or null to stop logging the commands
+     */
+    public void setCommandLog(final CommandLog commandLog) {
+        this.commandLog = commandLog;
+    }
+
+    /**
+     * Get the checkpoint of the command log the database continues from
+     * @return 0 for a database read from the input, else the checkpoint of its snapshot
+     */
+    public long getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Sets the checkpoint of the command log the database continues from
+     * @param checkpoint given checkpoint
+     */
+    public void setCheckpoint(final long checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Get the size of the command log records, after the checkpoint, that have already been
+     * executed over the database
+     * @return size in bytes
+     */
+    public long getLogOffset() {
+        return logOffset;
+    }
+
+    /**
+     * Sets the size of the command log records that have already been executed over the
+     * database
+     * @param logOffset size in bytes
+     */
+    public void setLogOffset(final long logOffset) {
+        this.logOffset = logOffset;
+    }
+
+    /**
+     * Get the copy of the videos' fields, used by the queries and recommendations
+     * @return catalog indexed by video id
+     */
+    public ColumnarCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Get the year and genre indexes of the movies
+     * @return movies index
+     */
+    public VideoIndex getMoviesIndex() {
+        return moviesIndex;
+    }
+
+    /**
+     * Get the year and genre indexes of the serials
+     * @return serials index
+     */
+    public VideoIndex getSerialsIndex() {
+        return serialsIndex;
+    }
+
+    /**
+     * Get the links between the videos and the actors from their cast lists
+     * @return cast index
+     */
+    public CastIndex getCastIndex() {
+        return castIndex;
+    }
+
+    /**
+     * Refreshes the statistics kept for a video after it has been viewed or rated
+     * @param video video
+     */
+    public void updateVideoStatistics(final Video video) {
+        castIndex.updateRating(video.getId(), catalog.getRating(video.getId()),
+                video.getRating());
+        catalog.update(video);
+        getIndex(video).update(video);
+    }
+
+    private VideoIndex getIndex(final Video video) {
+        if (video.getType() == VideoType.MOVIE) {
+            return moviesIndex;
+        }
+
+        return serialsIndex;
+    }
+
     /**
      * Get videos order from database
-     * @return List<VideoTitle>
+     * @return List<VideoId>
      */
-    public List<String> getVideosOrder() {
+    public List<Integer> getVideosOrder() {
         return videosOrder;
     }
+
+    /**
+     * Get the ids of all the videos from database
+     * @return Bitmap<VideoId>
+     */
+    public RoaringBitmap getVideosBitmap() {
+        return videosBitmap;
+    }
+
+    /**
+     * Get the number of users that have each video as favorite
+     * @return HashMap<VideoId, FavoritesCount>
+     */
+    public HashMap<Integer, Integer> getFavoritesCount() {
+        return favoritesCount;
+    }
+
+    /**
+     * Increments the number of users that have the given video as favorite
+     * @param videoId video id
+     */
+    public void addFavorite(final int videoId) {
+        addFavorites(videoId, 1);
+    }
+
+    /**
+     * Adds to the number of users that have the given video as favorite
+     * @param videoId video id
+     * @param users   number of users that have added the video as favorite
+     */
+    public void addFavorites(final int videoId, final int users) {
+        int count = favoritesCount.merge(videoId, users, Integer::sum);
+        Video video = getVideo(videoId);
+
+        if (video != null) {
+            getIndex(video).updateFavorites(video, count);
+        }
+    }
+
+    private void addVideo(final Video video) {
+        while (videos.size() <= video.getId()) {
+            videos.add(null);
+        }
+        videos.set(video.getId(), video);
+
+        videosOrder.add(video.getId());
+        videosBitmap.add(video.getId());
+        catalog.add(video);
+
+        int[] cast = new int[video.getCast().size()];
+        for (int i = 0; i < cast.length; i++) {
+            cast[i] = actorIds.intern(video.getCast().get(i));
+        }
+        castIndex.add(video.getId(), cast, video.getRating());
+    }
+
+    /**
+     * Get the buffer the result messages are built in, shared by all the actions
+     * @return result sink
+     */
+    public ResultSink getResultSink() {
+        return resultSink;
+    }
+
+    /**
+     * Get the dictionary of video titles
+     * @return Dictionary<VideoTitle, VideoId>
+     */
+    public Dictionary getVideoIds() {
+        return videoIds;
+    }
+
+    /**
+     * Get the dictionary of usernames
+     * @return Dictionary<UserName, UserId>
+     */
+    public Dictionary getUserIds() {
+        return userIds;
+    }
+
+    /**
+     * Get the dictionary of actor names
+     * @return Dictionary<ActorName, ActorId>
+     */
+    public Dictionary getActorIds() {
+        return actorIds;
+    }
 }
@@ -0,0 +1,546 @@
+package main;
+
+import actor.Actor;
+import actor.ActorsAwards;
+import common.Dictionary;
+import common.RunningAverage;
+import entertainment.Genre;
+import entertainment.Movie;
+import entertainment.Season;
+import entertainment.Serial;
+import entertainment.Video;
+import entertainment.VideoType;
+import user.User;
+import user.UserType;
+import utils.Utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+
+/**
+ * Binary snapshot of a database, written once and read back, by memory-mapping the file,
+ * instead of parsing the JSON input and rebuilding the database from it.
+ * <p>
+ * The snapshot keeps the dictionaries, the videos with their seasons, views and ratings, the
+ * order the videos have been added in, the users, the actors, the favorites and the actors'
+ * rating averages. Titles, usernames and actor names are written once, in the dictionaries,
+ * and referred to by id everywhere else. The indexes are rebuilt while the entities are added
+ * back to the database; the running averages are restored from their exact state, so that a
+ * restored database gives the same results as the one that was written. The snapshot also keeps
+ * the position of the command log the database has reached, so that only the commands after it
+ * are executed again when the log is opened over the restored database
+ */
+public final class DatabaseSnapshot {
+    private static final int MAGIC = 0x56444253;
+    private static final int VERSION = 2;
+    private static final int BUFFER_SIZE = 1 << 16;
+    /**
+     * Size of the part of the file mapped at once
+     */
+    private static final int WINDOW_SIZE = 1 << 26;
+    /**
+     * Length written instead of the length of a null string
+     */
+    static final int NULL_LENGTH = -1;
+    private static final int NO_ORDINAL = -1;
+
+    /**
+     * for coding style
+     */
+    private DatabaseSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot of a database; the records of its command log, if it has one, are
+     * committed first
+     *
+     * @param database given database
+     * @param path     file the snapshot is written to
+     * @throws IOException in case of exceptions to writing
+     */
+    public static void write(final Database database, final Path path) throws IOException {
+        CommandLog log = database.getCommandLog();
+
+        if (log == null) {
+            write(database, path, database.getCheckpoint(), database.getLogOffset());
+        } else {
+            log.commit();
+            write(database, path, log.getCheckpoint(), log.getRecordsSize());
+        }
+    }
+
+    /**
+     * Writes a snapshot of a database, which has executed the given records of a command log
+     *
+     * @param checkpoint checkpoint of the log
+     * @param logOffset  size of the records, after the checkpoint, executed over the database
+     */
+    static void write(final Database database, final Path path, final long checkpoint,
+                      final long logOffset) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(path), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(checkpoint);
+            out.writeLong(logOffset);
+
+            writeDictionary(out, database.getVideoIds());
+            writeDictionary(out, database.getUserIds());
+            writeDictionary(out, database.getActorIds());
+
+            List<Video> videos = new ArrayList<>();
+            for (int id = 0; id < database.getVideoIds().size(); id++) {
+                if (database.getVideo(id) != null) {
+                    videos.add(database.getVideo(id));
+                }
+            }
+            out.writeInt(videos.size());
+            for (Video video : videos) {
+                writeVideo(out, video, database.getActorIds());
+            }
+
+            out.writeInt(database.getVideosOrder().size());
+            for (int id : database.getVideosOrder()) {
+                out.writeInt(id);
+            }
+
+            out.writeInt(database.getUsers().size());
+            for (User user : database.getUsers().values()) {
+                writeUser(out, user);
+            }
+
+            out.writeInt(database.getActors().size());
+            for (Actor actor : database.getActors().values()) {
+                writeActor(out, actor);
+            }
+
+            out.writeInt(database.getFavoritesCount().size());
+            for (Map.Entry<Integer, Integer> favorite : database.getFavoritesCount().entrySet()) {
+                out.writeInt(favorite.getKey());
+                out.writeInt(favorite.getValue());
+            }
+
+            CastIndex castIndex = database.getCastIndex();
+            out.writeInt(castIndex.getActorsCount());
+            for (int id = 0; id < castIndex.getActorsCount(); id++) {
+                writeAverage(out, castIndex.getRatings(id));
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot into a new database
+     *
+     * @param path file the snapshot has been written to
+     * @return restored database
+     * @throws IOException in case of exceptions to reading or if the file is not a snapshot
+     */
+    public static Database read(final Path path) throws IOException {
+        Database database = new Database();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedReader in = new MappedReader(channel);
+
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a database snapshot: " + path);
+            }
+            database.setCheckpoint(in.readLong());
+            database.setLogOffset(in.readLong());
+
+            readDictionary(in, database.getVideoIds());
+            readDictionary(in, database.getUserIds());
+            readDictionary(in, database.getActorIds());
+
+            Video[] videos = new Video[database.getVideoIds().size()];
+            int videoCount = in.readInt();
+            for (int i = 0; i < videoCount; i++) {
+                Video video = readVideo(in, database);
+                videos[video.getId()] = video;
+            }
+
+            // Video-urile sunt adaugate in aceeasi ordine, indexurile se reconstruiesc
+            int orderSize = in.readInt();
+            for (int i = 0; i < orderSize; i++) {
+                Video video = videos[in.readInt()];
+
+                if (video.getType() == VideoType.MOVIE) {
+                    database.addMovie((Movie) video);
+                } else {
+                    database.addSerial((Serial) video);
+                }
+            }
+
+            int userCount = in.readInt();
+            for (int i = 0; i < userCount; i++) {
+                User user = readUser(in, database.getUserIds());
+                database.getUsers().put(user.getId(), user);
+            }
+
+            int actorCount = in.readInt();
+            for (int i = 0; i < actorCount; i++) {
+                database.addActor(readActor(in, database.getActorIds()));
+            }
+
+            int favoritesCount = in.readInt();
+            for (int i = 0; i < favoritesCount; i++) {
+                int videoId = in.readInt();
+                database.addFavorites(videoId, in.readInt());
+            }
+
+            CastIndex castIndex = database.getCastIndex();
+            int averagesCount = in.readInt();
+            for (int id = 0; id < averagesCount; id++) {
+                castIndex.restoreRatings(id, readAverage(in));
+            }
+        }
+
+        return database;
+    }
+
+    private static void writeDictionary(final DataOutputStream out,
+                                        final Dictionary dictionary) throws IOException {
+        out.writeInt(dictionary.size());
+        for (int id = 0; id < dictionary.size(); id++) {
+            writeString(out, dictionary.getName(id));
+        }
+    }
+
+    private static void readDictionary(final MappedReader in,
+                                       final Dictionary dictionary) throws IOException {
+        int size = in.readInt();
+        dictionary.ensureCapacity(size);
+        for (int id = 0; id < size; id++) {
+            dictionary.intern(in.readString());
+        }
+    }
+
+    private static void writeVideo(final DataOutputStream out, final Video video,
+                                   final Dictionary actorIds) throws IOException {
+        out.writeByte(video.getType().ordinal());
+        out.writeInt(video.getId());
+        out.writeInt(video.getReleaseYear());
+        out.writeLong(video.getGenresMask());
+
+        out.writeInt(video.getCast().size());
+        for (String name : video.getCast()) {
+            out.writeInt(actorIds.getId(name));
+        }
+
+        out.writeInt(video.getViewsByUser().size());
+        for (Map.Entry<Integer, Integer> views : video.getViewsByUser().entrySet()) {
+            out.writeInt(views.getKey());
+            out.writeInt(views.getValue());
+        }
+
+        if (video.getType() == VideoType.MOVIE) {
+            Movie movie = (Movie) video;
+
+            out.writeInt(movie.getDuration());
+            writeRatings(out, movie.getRatingsForUsers());
+            writeAverage(out, movie.getRatingAverage());
+            return;
+        }
+
+        Serial serial = (Serial) video;
+        out.writeInt(serial.getSeasons().size());
+        for (Season season : serial.getSeasons()) {
+            out.writeInt(season.getCurrentSeason());
+            out.writeInt(season.getDuration());
+
+            out.writeInt(season.getRatings().size());
+            for (Double rating : season.getRatings()) {
+                out.writeDouble(rating);
+            }
+            writeRatings(out, season.getRatingsForUsers());
+            writeAverage(out, season.getRatingAverage());
+        }
+    }
+
+    private static Video readVideo(final MappedReader in,
+                                   final Database database) throws IOException {
+        VideoType type = VideoType.values()[in.readByte()];
+        int id = in.readInt();
+        int year = in.readInt();
+        ArrayList<Genre> genres = maskToGenres(in.readLong());
+
+        int castSize = in.readInt();
+        ArrayList<String> cast = new ArrayList<>(castSize);
+        for (int i = 0; i < castSize; i++) {
+            cast.add(database.getActorIds().getName(in.readInt()));
+        }
+
+        int viewersCount = in.readInt();
+        int[] viewers = new int[viewersCount];
+        int[] views = new int[viewersCount];
+        for (int i = 0; i < viewersCount; i++) {
+            viewers[i] = in.readInt();
+            views[i] = in.readInt();
+        }
+
+        String title = database.getVideoIds().getName(id);
+        Video video;
+
+        if (type == VideoType.MOVIE) {
+            Movie movie = new Movie(id, title, year, genres, cast, in.readInt());
+            HashMap<Integer, Double> ratings = readRatings(in);
+            movie.restoreRatings(ratings, readAverage(in));
+            video = movie;
+        } else {
+            int seasonsCount = in.readInt();
+            ArrayList<Season> seasons = new ArrayList<>(seasonsCount);
+
+            for (int i = 0; i < seasonsCount; i++) {
+                Season season = new Season(in.readInt(), in.readInt());
+
+                int ratingsCount = in.readInt();
+                List<Double> ratingsList = new ArrayList<>(ratingsCount);
+                for (int j = 0; j < ratingsCount; j++) {
+                    ratingsList.add(in.readDouble());
+                }
+                HashMap<Integer, Double> ratings = readRatings(in);
+                season.restoreRatings(ratingsList, ratings, readAverage(in));
+
+                seasons.add(season);
+            }
+
+            video = new Serial(id, title, year, genres, cast, seasons);
+        }
+
+        video.addViewsForUsers(viewers, views);
+
+        return video;
+    }
+
+    private static ArrayList<Genre> maskToGenres(final long mask) {
+        ArrayList<Genre> genres = new ArrayList<>();
+
+        for (Genre genre : Genre.values()) {
+            if ((mask & Utils.genreToBit(genre)) != 0) {
+                genres.add(genre);
+            }
+        }
+        if ((mask & Utils.UNMAPPED_GENRE_BIT) != 0) {
+            genres.add(null);
+        }
+
+        return genres;
+    }
+
+    private static void writeRatings(final DataOutputStream out,
+                                     final Map<Integer, Double> ratings) throws IOException {
+        out.writeInt(ratings.size());
+        for (Map.Entry<Integer, Double> rating : ratings.entrySet()) {
+            out.writeInt(rating.getKey());
+            out.writeDouble(rating.getValue());
+        }
+    }
+
+    private static HashMap<Integer, Double> readRatings(final MappedReader in)
+            throws IOException {
+        int size = in.readInt();
+        HashMap<Integer, Double> ratings = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            int userId = in.readInt();
+            ratings.put(userId, in.readDouble());
+        }
+
+        return ratings;
+    }
+
+    private static void writeAverage(final DataOutputStream out,
+                                     final RunningAverage average) throws IOException {
+        out.writeDouble(average.getRunningSum());
+        out.writeDouble(average.getCompensation());
+        out.writeInt(average.getCount());
+    }
+
+    private static RunningAverage readAverage(final MappedReader in) throws IOException {
+        double sum = in.readDouble();
+        double compensation = in.readDouble();
+
+        return new RunningAverage(sum, compensation, in.readInt());
+    }
+
+    private static void writeUser(final DataOutputStream out, final User user)
+            throws IOException {
+        out.writeInt(user.getId());
+        out.writeInt(user.getUserType() == null ? NO_ORDINAL : user.getUserType().ordinal());
+
+        out.writeInt(user.getFavoriteVideos().size());
+        for (int videoId : user.getFavoriteVideos()) {
+            out.writeInt(videoId);
+        }
+
+        out.writeInt(user.getViewedVideos().cardinality());
+        PrimitiveIterator.OfInt iterator = user.getViewedVideos().iterator();
+        while (iterator.hasNext()) {
+            out.writeInt(iterator.nextInt());
+        }
+    }
+
+    private static User readUser(final MappedReader in, final Dictionary userIds)
+            throws IOException {
+        int id = in.readInt();
+        int type = in.readInt();
+
+        int favoritesCount = in.readInt();
+        List<Integer> favorites = new ArrayList<>(favoritesCount);
+        for (int i = 0; i < favoritesCount; i++) {
+            favorites.add(in.readInt());
+        }
+
+        User user = new User(id, userIds.getName(id),
+                type == NO_ORDINAL ? null : UserType.values()[type], favorites);
+
+        int viewedCount = in.readInt();
+        for (int i = 0; i < viewedCount; i++) {
+            user.addViewedVideo(in.readInt());
+        }
+
+        return user;
+    }
+
+    private static void writeActor(final DataOutputStream out, final Actor actor)
+            throws IOException {
+        out.writeInt(actor.getId());
+        writeString(out, actor.getCareerDescription());
+
+        out.writeInt(actor.getAwards().size());
+        for (Map.Entry<ActorsAwards, Integer> award : actor.getAwards().entrySet()) {
+            out.writeInt(award.getKey().ordinal());
+            out.writeInt(award.getValue());
+        }
+        out.writeInt(actor.getAwardsCount());
+
+        out.writeInt(actor.getFilmography().size());
+        for (String title : actor.getFilmography()) {
+            writeString(out, title);
+        }
+    }
+
+    private static Actor readActor(final MappedReader in, final Dictionary actorIds)
+            throws IOException {
+        int id = in.readInt();
+        String description = in.readString();
+
+        int awardsSize = in.readInt();
+        Map<ActorsAwards, Integer> awards = new LinkedHashMap<>();
+        int awardsSum = 0;
+        for (int i = 0; i < awardsSize; i++) {
+            ActorsAwards award = ActorsAwards.values()[in.readInt()];
+            int count = in.readInt();
+
+            awards.put(award, count);
+            awardsSum += count;
+        }
+
+        // Premiile necunoscute nu apar in map, dar sunt numarate in total
+        int awardsCount = in.readInt();
+        if (awardsCount != awardsSum) {
+            awards.put(null, awardsCount - awardsSum);
+        }
+
+        int filmographySize = in.readInt();
+        ArrayList<String> filmography = new ArrayList<>(filmographySize);
+        for (int i = 0; i < filmographySize; i++) {
+            filmography.add(in.readString());
+        }
+
+        return new Actor(id, actorIds.getName(id), description, awards, filmography);
+    }
+
+    /**
+     * Writes a string as the length of its UTF-8 bytes, followed by the bytes
+     */
+    static void writeString(final DataOutputStream out, final String value)
+            throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads the snapshot through a window of the file mapped in memory, moved forward when
+     * the next value does not fit in it anymore
+     */
+    private static final class MappedReader {
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart;
+        private MappedByteBuffer window;
+
+        MappedReader(final FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        private void require(final int bytes) throws IOException {
+            if (window != null && window.remaining() >= bytes) {
+                return;
+            }
+
+            long position = window == null ? 0 : windowStart + window.position();
+            if (position + bytes > size) {
+                throw new EOFException();
+            }
+
+            long length = Math.min(size - position, Math.max(WINDOW_SIZE, bytes));
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            windowStart = position;
+        }
+
+        byte readByte() throws IOException {
+            require(Byte.BYTES);
+            return window.get();
+        }
+
+        int readInt() throws IOException {
+            require(Integer.BYTES);
+            return window.getInt();
+        }
+
+        long readLong() throws IOException {
+            require(Long.BYTES);
+            return window.getLong();
+        }
+
+        double readDouble() throws IOException {
+            require(Double.BYTES);
+            return window.getDouble();
+        }
+
+        String readString() throws IOException {
+            int length = readInt();
+
+            if (length == NULL_LENGTH) {
+                return null;
+            }
+
+            require(length);
+            byte[] bytes = new byte[length];
+            window.get(bytes);
+
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
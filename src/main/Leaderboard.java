@@ -0,0 +1,168 @@
+package main;
+
+import common.Constants;
+import common.ResultSink;
+import common.RoaringBitmap;
+import common.TopKSelector;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.TreeSet;
+
+/**
+ * Videos with a positive score (views, rating, number of favorites), kept ordered by score and
+ * title, the same order the queries sort their results in. A query reads the first entries
+ * that pass its filters instead of sorting the whole catalog. When the filters leave only a
+ * few videos, far down the order, the walk stops after a number of entries proportional to the
+ * number of candidates and the candidates are selected with a bounded heap, so that the query
+ * does not walk the entries of all the other videos
+ */
+public final class Leaderboard {
+    /**
+     * Entries walked for every candidate before the candidates are selected with a heap
+     */
+    private static final int WALK_PER_CANDIDATE = 8;
+
+    private final TreeSet<Entry> entries;
+    private final HashMap<Integer, Entry> entriesById;
+
+    public Leaderboard() {
+        entries = new TreeSet<>();
+        entriesById = new HashMap<>();
+    }
+
+    /**
+     * Sets the score of a video; a video with a score of 0 is removed
+     *
+     * @param id    video id
+     * @param title video title
+     * @param score new score
+     */
+    public void update(final int id, final String title, final double score) {
+        Entry entry = entriesById.get(id);
+
+        if (entry != null) {
+            if (Double.compare(entry.score, score) == 0) {
+                return;
+            }
+            entries.remove(entry);
+            entriesById.remove(id);
+        }
+
+        if (score > 0) {
+            entry = new Entry(id, title, score);
+            entries.add(entry);
+            entriesById.put(id, entry);
+        }
+    }
+
+    /**
+     * Selects the first videos in the order given by the sort type. For an unknown sort type
+     * the videos are taken in the order of their ids
+     *
+     * @param candidates ids of the videos that pass the query's filters
+     * @param limit      maximum number of videos
+     * @param sortType   ascending or descending
+     * @param sink       result message the titles of the videos are appended to
+     */
+    public void select(final RoaringBitmap candidates, final int limit, final String sortType,
+                       final ResultSink sink) {
+        if (limit < 0) {
+            throw new IllegalArgumentException(Integer.toString(limit));
+        }
+
+        if (!sortType.equals(Constants.ASC_SORTING)
+                && !sortType.equals(Constants.DESC_SORTING)) {
+            PrimitiveIterator.OfInt iterator = candidates.iterator();
+            int selected = 0;
+
+            while (iterator.hasNext() && selected < limit) {
+                Entry entry = entriesById.get(iterator.nextInt());
+
+                if (entry != null) {
+                    sink.add(entry.title);
+                    selected++;
+                }
+            }
+
+            return;
+        }
+
+        boolean ascending = sortType.equals(Constants.ASC_SORTING);
+        Iterator<Entry> iterator = ascending ? entries.iterator() : entries.descendingIterator();
+        long walkLimit = (long) candidates.cardinality() * WALK_PER_CANDIDATE;
+        long walked = 0;
+        ArrayList<String> titles = new ArrayList<>();
+
+        while (iterator.hasNext() && titles.size() < limit) {
+            if (walked++ == walkLimit) {
+                selectWithHeap(candidates, limit, ascending, sink);
+                return;
+            }
+
+            Entry entry = iterator.next();
+
+            if (candidates.contains(entry.id)) {
+                titles.add(entry.title);
+            }
+        }
+
+        for (String title : titles) {
+            sink.add(title);
+        }
+    }
+
+    /**
+     * Selects the first candidates with a heap bounded to the limit, in time proportional to
+     * the number of candidates
+     */
+    private void selectWithHeap(final RoaringBitmap candidates, final int limit,
+                                final boolean ascending, final ResultSink sink) {
+        Comparator<Entry> order = ascending ? Comparator.naturalOrder()
+                : Comparator.reverseOrder();
+        TopKSelector<Entry> selector = new TopKSelector<>(limit, order);
+        PrimitiveIterator.OfInt iterator = candidates.iterator();
+
+        while (iterator.hasNext()) {
+            Entry entry = entriesById.get(iterator.nextInt());
+
+            if (entry != null) {
+                selector.add(entry);
+            }
+        }
+
+        selector.writeTo(sink);
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        private final int id;
+        private final String title;
+        private final double score;
+
+        Entry(final int id, final String title, final double score) {
+            this.id = id;
+            this.title = title;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(final Entry other) {
+            if (Double.compare(score, other.score) != 0) {
+                return Double.compare(score, other.score);
+            }
+            if (!title.equals(other.title)) {
+                return title.compareTo(other.title);
+            }
+
+            return Integer.compare(id, other.id);
+        }
+
+        @Override
+        public String toString() {
+            return title;
+        }
+    }
+}
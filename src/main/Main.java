@@ -4,9 +4,10 @@ import checker.Checkstyle;
 import checker.Checker;
 import common.Constants;
 import fileio.Input;
-import fileio.InputLoader;
+import fileio.JacksonInputLoader;
 import fileio.Writer;
 import org.json.simple.JSONArray;
+import tests.UnitTests;
 
 import java.io.File;
 import java.io.IOException;
@@ -14,6 +15,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 
 /** The entry point to this homework. It runs the checker that tests your implentation. */
 public final class Main {
@@ -49,6 +51,7 @@ public final class Main {
     }
 
     checker.iterateFiles(Constants.RESULT_PATH, Constants.REF_PATH, Constants.TESTS_PATH);
+    UnitTests.runAll();
     Checkstyle test = new Checkstyle();
     test.testCheckstyle();
   }
@@ -59,13 +62,16 @@ public final class Main {
    * @throws IOException in case of exceptions to reading / writing
    */
   public static void action(final String filePath1, final String filePath2) throws IOException {
-    InputLoader inputLoader = new InputLoader(filePath1);
-    Input input = inputLoader.readData();
+    JacksonInputLoader inputLoader = new JacksonInputLoader(filePath1);
+    Input input = inputLoader.readDataLazily();
 
-    Writer fileWriter = new Writer(filePath2);
+    Writer fileWriter = new Writer(filePath2, true);
     JSONArray arrayResult = new JSONArray();
 
-    VideosDB videosDB = new VideosDB();
+    // Pe un singur procesor incarcarea secventiala e mai rapida
+    ForkJoinPool loadPool = Runtime.getRuntime().availableProcessors() > 1
+        ? ForkJoinPool.commonPool() : null;
+    VideosDB videosDB = new VideosDB(new Database(), loadPool);
     arrayResult = videosDB.run(input, fileWriter);
 
     fileWriter.closeJSON(arrayResult);
@@ -0,0 +1,331 @@
+package main;
+
+import actor.Actor;
+import common.Dictionary;
+import entertainment.Movie;
+import entertainment.Serial;
+import entertainment.Video;
+import fileio.ActorInputData;
+import fileio.Input;
+import fileio.MovieInputData;
+import fileio.SerialInputData;
+import fileio.ShowInput;
+import fileio.UserInputData;
+import user.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+
+/**
+ * Reads the input into a database with fork-join tasks.
+ * <p>
+ * The titles, usernames and actor names get their ids first, on the calling thread and in the
+ * order VideosDB.readDB gives them, so that the database ends up the same as after a sequential
+ * load. Then the videos, the users and the actors are built in parallel; the views and
+ * favorites from the users are gathered in partial maps, one per task, merged when the tasks
+ * are joined. The database's indexes are filled at the end, and the views are added to every
+ * video in parallel, since every video keeps its own views
+ */
+final class ParallelLoader {
+    /**
+     * Number of elements under which a task is not split anymore
+     */
+    private static final int THRESHOLD = 1024;
+
+    private final Database database;
+    private final ForkJoinPool pool;
+
+    ParallelLoader(final Database database, final ForkJoinPool pool) {
+        this.database = database;
+        this.pool = pool;
+    }
+
+    /**
+     * Reads video database based on input
+     *
+     * @param input Data input from JSON
+     */
+    void load(final Input input) {
+        List<MovieInputData> movieInputs = input.getMovies();
+        List<SerialInputData> serialInputs = input.getSerials();
+        List<UserInputData> userInputs = input.getUsers();
+        List<ActorInputData> actorInputs = input.getActors();
+
+        // Id-urile sunt date in aceeasi ordine ca la citirea secventiala
+        int[] movieIds = internTitles(movieInputs);
+        int[] serialIds = internTitles(serialInputs);
+        int videoCount = database.getVideoIds().size();
+        internCast(movieInputs);
+        internCast(serialInputs);
+
+        int[] userIds = new int[userInputs.size()];
+        List<List<Integer>> favorites = new ArrayList<>(userInputs.size());
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = database.getUserIds().intern(userInputs.get(i).getUsername());
+
+            List<Integer> favoriteVideos = new ArrayList<>();
+            for (String title : userInputs.get(i).getFavoriteMovies()) {
+                favoriteVideos.add(database.getVideoIds().intern(title));
+            }
+            favorites.add(favoriteVideos);
+        }
+
+        int[] actorIds = new int[actorInputs.size()];
+        for (int i = 0; i < actorIds.length; i++) {
+            actorIds[i] = database.getActorIds().intern(actorInputs.get(i).getName());
+        }
+
+        Movie[] movies = new Movie[movieIds.length];
+        Serial[] serials = new Serial[serialIds.length];
+        User[] users = new User[userIds.length];
+        Actor[] actors = new Actor[actorIds.length];
+
+        ForEach moviesTask = new ForEach(0, movies.length,
+                i -> movies[i] = new Movie(movieIds[i], movieInputs.get(i)));
+        ForEach serialsTask = new ForEach(0, serials.length,
+                i -> serials[i] = new Serial(serialIds[i], serialInputs.get(i)));
+        UsersTask usersTask = new UsersTask(0, users.length, userInputs, userIds, favorites,
+                users, database.getVideoIds(), videoCount);
+        ActorsTask actorsTask = new ActorsTask(0, actors.length, actorInputs, actorIds, actors);
+
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(moviesTask, serialsTask,
+                usersTask, actorsTask)));
+
+        for (Movie movie : movies) {
+            database.addMovie(movie);
+        }
+        for (Serial serial : serials) {
+            database.addSerial(serial);
+        }
+        for (int i = 0; i < users.length; i++) {
+            database.getUsers().put(userIds[i], users[i]);
+        }
+        database.addActors(Arrays.asList(actors), actorsTask.join());
+
+        UserStatistics statistics = usersTask.join();
+        for (Map.Entry<Integer, Integer> favorite : statistics.favorites.entrySet()) {
+            database.addFavorites(favorite.getKey(), favorite.getValue());
+        }
+
+        int[] viewedVideos = statistics.views.keySet().stream().mapToInt(Integer::intValue)
+                .toArray();
+        pool.invoke(new ForEach(0, viewedVideos.length, i -> {
+            Video video = database.getVideo(viewedVideos[i]);
+
+            for (Map.Entry<Integer, Integer> views
+                    : statistics.views.get(viewedVideos[i]).entrySet()) {
+                video.addViewsForUser(views.getKey(), views.getValue());
+            }
+        }));
+        for (int videoId : viewedVideos) {
+            database.updateVideoStatistics(database.getVideo(videoId));
+        }
+    }
+
+    private int[] internTitles(final List<? extends ShowInput> shows) {
+        int[] ids = new int[shows.size()];
+
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = database.getVideoIds().intern(shows.get(i).getTitle());
+        }
+
+        return ids;
+    }
+
+    private void internCast(final List<? extends ShowInput> shows) {
+        for (ShowInput show : shows) {
+            for (String name : show.getCast()) {
+                database.getActorIds().intern(name);
+            }
+        }
+    }
+
+    /**
+     * Runs a body for every index from a range, splitting the range between tasks
+     */
+    private static final class ForEach extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer body;
+
+        ForEach(final int from, final int to, final IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new ForEach(from, middle, body), new ForEach(middle, to, body));
+        }
+    }
+
+    /**
+     * Views and favorites gathered from some of the users
+     */
+    private static final class UserStatistics {
+        /**
+         * Views of every video, by user
+         */
+        private final HashMap<Integer, HashMap<Integer, Integer>> views = new HashMap<>();
+        /**
+         * Number of users that have each video as favorite
+         */
+        private final HashMap<Integer, Integer> favorites = new HashMap<>();
+
+        UserStatistics merge(final UserStatistics other) {
+            for (Map.Entry<Integer, HashMap<Integer, Integer>> video : other.views.entrySet()) {
+                HashMap<Integer, Integer> videoViews = views.putIfAbsent(video.getKey(),
+                        video.getValue());
+
+                if (videoViews != null) {
+                    video.getValue().forEach((user, count) -> videoViews.merge(user, count,
+                            Integer::sum));
+                }
+            }
+            other.favorites.forEach((video, count) -> favorites.merge(video, count,
+                    Integer::sum));
+
+            return this;
+        }
+    }
+
+    /**
+     * Builds the users from a range and gathers their views and favorites
+     */
+    private static final class UsersTask extends RecursiveTask<UserStatistics> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final List<UserInputData> inputs;
+        private final int[] ids;
+        private final List<List<Integer>> favorites;
+        private final User[] users;
+        private final Dictionary videoIds;
+        private final int videoCount;
+
+        UsersTask(final int from, final int to, final List<UserInputData> inputs,
+                  final int[] ids, final List<List<Integer>> favorites, final User[] users,
+                  final Dictionary videoIds, final int videoCount) {
+            this.from = from;
+            this.to = to;
+            this.inputs = inputs;
+            this.ids = ids;
+            this.favorites = favorites;
+            this.users = users;
+            this.videoIds = videoIds;
+            this.videoCount = videoCount;
+        }
+
+        @Override
+        protected UserStatistics compute() {
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                UsersTask left = new UsersTask(from, middle, inputs, ids, favorites, users,
+                        videoIds, videoCount);
+                UsersTask right = new UsersTask(middle, to, inputs, ids, favorites, users,
+                        videoIds, videoCount);
+
+                left.fork();
+                UserStatistics statistics = right.compute();
+
+                return left.join().merge(statistics);
+            }
+
+            UserStatistics statistics = new UserStatistics();
+
+            for (int i = from; i < to; i++) {
+                User user = new User(ids[i], inputs.get(i), favorites.get(i));
+                users[i] = user;
+
+                for (Integer videoId : user.getFavoriteVideos()) {
+                    statistics.favorites.merge(videoId, 1, Integer::sum);
+                }
+
+                for (Map.Entry<String, Integer> pair : inputs.get(i).getHistory().entrySet()) {
+                    int videoId = videoIds.getId(pair.getKey());
+
+                    // Titlurile favorite care nu sunt video-uri au id-uri dupa ale video-urilor
+                    if (videoId == Dictionary.NOT_FOUND || videoId >= videoCount) {
+                        continue;
+                    }
+
+                    statistics.views.computeIfAbsent(videoId, v -> new HashMap<>())
+                            .merge(ids[i], pair.getValue(), Integer::sum);
+
+                    if (pair.getValue() >= 1) {
+                        user.addViewedVideo(videoId);
+                    }
+                }
+            }
+
+            return statistics;
+        }
+    }
+
+    /**
+     * Builds the actors from a range and indexes the words of their career descriptions
+     */
+    private static final class ActorsTask extends RecursiveTask<TermIndex> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final List<ActorInputData> inputs;
+        private final int[] ids;
+        private final Actor[] actors;
+
+        ActorsTask(final int from, final int to, final List<ActorInputData> inputs,
+                   final int[] ids, final Actor[] actors) {
+            this.from = from;
+            this.to = to;
+            this.inputs = inputs;
+            this.ids = ids;
+            this.actors = actors;
+        }
+
+        @Override
+        protected TermIndex compute() {
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                ActorsTask left = new ActorsTask(from, middle, inputs, ids, actors);
+                ActorsTask right = new ActorsTask(middle, to, inputs, ids, actors);
+
+                left.fork();
+                TermIndex terms = right.compute();
+                TermIndex leftTerms = left.join();
+                leftTerms.addAll(terms);
+
+                return leftTerms;
+            }
+
+            TermIndex terms = new TermIndex();
+
+            for (int i = from; i < to; i++) {
+                actors[i] = new Actor(ids[i], inputs.get(i));
+                terms.add(ids[i], actors[i].getCareerDescription());
+            }
+
+            return terms;
+        }
+    }
+}
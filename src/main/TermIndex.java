@@ -0,0 +1,83 @@
+package main;
+
+import common.RoaringBitmap;
+import common.TermDictionary;
+import common.Tokenizer;
+
+import java.util.ArrayList;
+import java.util.PrimitiveIterator;
+
+/**
+ * Inverted index of the words from some texts: for every lowercase word, the ids of the texts
+ * that contain it. Indexes built separately, over different texts, can be merged
+ */
+public final class TermIndex {
+    private final TermDictionary terms;
+    private final ArrayList<RoaringBitmap> postings;
+    private final Tokenizer tokenizer;
+
+    public TermIndex() {
+        terms = new TermDictionary();
+        postings = new ArrayList<>();
+        tokenizer = new Tokenizer();
+    }
+
+    /**
+     * Adds the words of a text to the index; a missing text has no words
+     *
+     * @param id   id of the text
+     * @param text given text, can be null
+     */
+    public void add(final int id, final String text) {
+        if (text == null) {
+            return;
+        }
+
+        tokenizer.reset(text);
+        while (tokenizer.next()) {
+            getPostings(terms.intern(tokenizer.getText(), tokenizer.getStart(),
+                    tokenizer.getEnd())).add(id);
+        }
+    }
+
+    /**
+     * Adds to this index all the words from another index
+     *
+     * @param other given index
+     */
+    public void addAll(final TermIndex other) {
+        for (int i = 0; i < other.terms.size(); i++) {
+            String term = other.terms.getTerm(i);
+            RoaringBitmap target = getPostings(terms.intern(term, 0, term.length()));
+            PrimitiveIterator.OfInt iterator = other.postings.get(i).iterator();
+
+            while (iterator.hasNext()) {
+                target.add(iterator.nextInt());
+            }
+        }
+    }
+
+    /**
+     * Get the ids of the texts that contain a word. The returned bitmap must not be modified
+     *
+     * @param term lowercase word
+     * @return Bitmap<TextId>
+     */
+    public RoaringBitmap get(final String term) {
+        int id = terms.getId(term);
+
+        if (id == TermDictionary.NOT_FOUND) {
+            return new RoaringBitmap();
+        }
+
+        return postings.get(id);
+    }
+
+    private RoaringBitmap getPostings(final int term) {
+        if (term == postings.size()) {
+            postings.add(new RoaringBitmap());
+        }
+
+        return postings.get(term);
+    }
+}
@@ -0,0 +1,140 @@
+package main;
+
+import common.RoaringBitmap;
+import entertainment.Genre;
+import entertainment.Video;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+
+/**
+ * Secondary indexes of a set of videos: posting lists (as bitmaps of video ids) for every
+ * release year and for every genre, and leaderboards by views, rating and number of favorites.
+ * The videos with a genre string that has no Genre value share one more posting list, the one
+ * a filter on such a string selects
+ */
+public final class VideoIndex {
+    private final RoaringBitmap allVideos;
+    private final HashMap<Integer, RoaringBitmap> videosByYear;
+    private final EnumMap<Genre, RoaringBitmap> videosByGenre;
+    private final RoaringBitmap videosWithUnmappedGenre;
+    private final Leaderboard mostViewed;
+    private final Leaderboard bestRated;
+    private final Leaderboard mostFavorite;
+
+    public VideoIndex() {
+        allVideos = new RoaringBitmap();
+        videosByYear = new HashMap<>();
+        videosByGenre = new EnumMap<>(Genre.class);
+        videosWithUnmappedGenre = new RoaringBitmap();
+        mostViewed = new Leaderboard();
+        bestRated = new Leaderboard();
+        mostFavorite = new Leaderboard();
+    }
+
+    /**
+     * Adds a video to the indexes
+     *
+     * @param video video
+     */
+    public void add(final Video video) {
+        allVideos.add(video.getId());
+        videosByYear.computeIfAbsent(video.getReleaseYear(), year -> new RoaringBitmap())
+                .add(video.getId());
+
+        for (Genre genre : Genre.values()) {
+            if (video.hasGenre(genre)) {
+                videosByGenre.computeIfAbsent(genre, g -> new RoaringBitmap()).add(video.getId());
+            }
+        }
+        if (video.hasGenre(null)) {
+            videosWithUnmappedGenre.add(video.getId());
+        }
+
+        update(video);
+    }
+
+    /**
+     * Moves a video in the views and rating leaderboards after it has been viewed or rated
+     *
+     * @param video video
+     */
+    public void update(final Video video) {
+        mostViewed.update(video.getId(), video.getTitle(), video.getViewsCount());
+        bestRated.update(video.getId(), video.getTitle(), video.getRating());
+    }
+
+    /**
+     * Moves a video in the favorites leaderboard
+     *
+     * @param video          video
+     * @param favoritesCount number of users that have the video as favorite
+     */
+    public void updateFavorites(final Video video, final int favoritesCount) {
+        mostFavorite.update(video.getId(), video.getTitle(), favoritesCount);
+    }
+
+    /**
+     * Get the videos ordered by their number of views
+     *
+     * @return leaderboard
+     */
+    public Leaderboard getMostViewed() {
+        return mostViewed;
+    }
+
+    /**
+     * Get the videos ordered by their rating
+     *
+     * @return leaderboard
+     */
+    public Leaderboard getBestRated() {
+        return bestRated;
+    }
+
+    /**
+     * Get the videos ordered by the number of users that have them as favorite
+     *
+     * @return leaderboard
+     */
+    public Leaderboard getMostFavorite() {
+        return mostFavorite;
+    }
+
+    /**
+     * Selects the videos that match the year and genre filters. The returned bitmap must not
+     * be modified
+     *
+     * @param hasYearFilter  if the year filter is applied
+     * @param year           release year
+     * @param hasGenreFilter if the genre filter is applied
+     * @param genre          genre, null for a genre string without a Genre value
+     * @return ids of the matching videos
+     */
+    public RoaringBitmap select(final boolean hasYearFilter, final int year,
+                                final boolean hasGenreFilter, final Genre genre) {
+        RoaringBitmap result = allVideos;
+
+        if (hasYearFilter) {
+            result = videosByYear.getOrDefault(year, new RoaringBitmap());
+        }
+
+        if (hasGenreFilter) {
+            RoaringBitmap genreVideos = new RoaringBitmap();
+
+            if (genre == null) {
+                genreVideos = videosWithUnmappedGenre;
+            } else if (videosByGenre.containsKey(genre)) {
+                genreVideos = videosByGenre.get(genre);
+            }
+
+            if (hasYearFilter) {
+                result = result.and(genreVideos);
+            } else {
+                result = genreVideos;
+            }
+        }
+
+        return result;
+    }
+}
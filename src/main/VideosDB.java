@@ -4,6 +4,7 @@ import actions.Action;
 import actor.Actor;
 import entertainment.Movie;
 import entertainment.Serial;
+import entertainment.Video;
 import fileio.Input;
 import fileio.Writer;
 import fileio.MovieInputData;
@@ -11,18 +12,38 @@ import fileio.SerialInputData;
 import fileio.UserInputData;
 import fileio.ActorInputData;
 import fileio.ActionInputData;
+import fileio.ActionStream;
 import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
 import user.User;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 public class VideosDB {
     private final Database database;
+    /**
+     * Pool the database is loaded with, or null for a sequential load
+     */
+    private final ForkJoinPool loadPool;
 
     public VideosDB() {
          database = new Database();
+         loadPool = null;
+    }
+
+    /**
+     * Creates the solver over the given (empty) database, loaded in parallel
+     *
+     * @param database empty database
+     * @param loadPool pool the database is loaded with, or null for a sequential load
+     */
+    public VideosDB(final Database database, final ForkJoinPool loadPool) {
+        this.database = database;
+        this.loadPool = loadPool;
     }
 
     /**
@@ -32,23 +53,68 @@ public class VideosDB {
      * @param fileWriter output file
      */
     public JSONArray run(final Input input, final Writer fileWriter) {
-        readDB(input);
+        ActionStream stream = input.getCommandsStream();
+
+        // Fisierul actiunilor este inchis si daca citirea bazei de date esueaza
+        try (stream) {
+            readDB(input);
+
+            return execute(input, fileWriter);
+        }
+    }
 
+    /**
+     * Executes the actions over the database, already read or restored from a snapshot
+     *
+     * @param input      input file, only its actions are used
+     * @param fileWriter output file
+     * @return results of the actions, empty if the writer is in streaming mode
+     */
+    public JSONArray execute(final Input input, final Writer fileWriter) {
         JSONArray result = new JSONArray();
 
-        for (ActionInputData actionInput : input.getCommands()) {
-            result.add(Action.execute(database, actionInput, fileWriter));
+        // Fisierul ramane deschis doar cat timp sunt executate actiunile, chiar daca una esueaza
+        try (ActionStream stream = input.getCommandsStream()) {
+            // Comenzile citite la cerere sunt executate pe masura ce sunt parsate
+            Iterator<ActionInputData> commands = stream != null
+                    ? stream : input.getCommands().iterator();
+
+            while (commands.hasNext()) {
+                ActionInputData actionInput = commands.next();
+                JSONObject output = Action.execute(database, actionInput, fileWriter);
+
+                if (fileWriter.isStreaming()) {
+                    fileWriter.writeResult(output);
+                } else {
+                    result.add(output);
+                }
+            }
         }
 
         return result;
     }
 
     /**
-     * Reads video database based on input
+     * Retrieves the database
+     *
+     * @return database
+     */
+    public Database getDatabase() {
+        return database;
+    }
+
+    /**
+     * Reads video database based on input. Every title, username and actor name gets an id
+     * from the database's dictionaries
      *
      * @param input Data input from JSON
      */
-    private void readDB(final Input input) {
+    public void readDB(final Input input) {
+        if (loadPool != null) {
+            new ParallelLoader(database, loadPool).load(input);
+            return;
+        }
+
         readMovies(input.getMovies());
         readSerials(input.getSerials());
         readUsers(input.getUsers());
@@ -62,8 +128,9 @@ public class VideosDB {
      */
     private void readMovies(final List<MovieInputData> movieInputDataList) {
         for (MovieInputData movieInput : movieInputDataList) {
-            database.getVideosOrder().add(movieInput.getTitle());
-            database.getMovies().put(movieInput.getTitle(), new Movie(movieInput));
+            int id = database.getVideoIds().intern(movieInput.getTitle());
+
+            database.addMovie(new Movie(id, movieInput));
         }
     }
 
@@ -74,8 +141,9 @@ public class VideosDB {
      */
     private void readSerials(final List<SerialInputData> serialInputDataList) {
         for (SerialInputData serialInput : serialInputDataList) {
-            database.getVideosOrder().add(serialInput.getTitle());
-            database.getSerials().put(serialInput.getTitle(), new Serial(serialInput));
+            int id = database.getVideoIds().intern(serialInput.getTitle());
+
+            database.addSerial(new Serial(id, serialInput));
         }
     }
 
@@ -86,7 +154,8 @@ public class VideosDB {
      */
     private void readActors(final List<ActorInputData> actorInputDataList) {
         for (ActorInputData actorInput : actorInputDataList) {
-            database.getActors().put(actorInput.getName(), new Actor(actorInput));
+            int id = database.getActorIds().intern(actorInput.getName());
+            database.addActor(new Actor(id, actorInput));
         }
     }
 
@@ -97,20 +166,30 @@ public class VideosDB {
      */
     private void readUsers(final List<UserInputData> userInputDataList) {
         for (UserInputData userInput : userInputDataList) {
-            database.getUsers().put(userInput.getUsername(), new User(userInput));
+            int userId = database.getUserIds().intern(userInput.getUsername());
+
+            ArrayList<Integer> favoriteVideos = new ArrayList<>();
+            for (String title : userInput.getFavoriteMovies()) {
+                favoriteVideos.add(database.getVideoIds().intern(title));
+            }
 
-            HashMap<String, Integer> history = new HashMap<>(userInput.getHistory());
+            User user = new User(userId, userInput, favoriteVideos);
+            database.getUsers().put(userId, user);
 
-            for (Map.Entry<String, Integer> pair : history.entrySet()) {
-                if (database.getMovies().containsKey(pair.getKey())) {
-                    database.getMovies()
-                            .get(pair.getKey())
-                            .addViewsForUser(userInput.getUsername(), pair.getValue());
-                }
-                if (database.getSerials().containsKey(pair.getKey())) {
-                    database.getSerials()
-                            .get(pair.getKey())
-                            .addViewsForUser(userInput.getUsername(), pair.getValue());
+            for (Integer videoId : user.getFavoriteVideos()) {
+                database.addFavorite(videoId);
+            }
+
+            for (Map.Entry<String, Integer> pair : userInput.getHistory().entrySet()) {
+                Video video = database.getVideo(pair.getKey());
+
+                if (video != null) {
+                    video.addViewsForUser(userId, pair.getValue());
+                    database.updateVideoStatistics(video);
+
+                    if (pair.getValue() >= 1) {
+                        user.addViewedVideo(video.getId());
+                    }
                 }
             }
         }
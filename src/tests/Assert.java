@@ -0,0 +1,62 @@
+package tests;
+
+import java.util.Objects;
+
+/**
+ * Checks used by the unit tests
+ */
+public final class Assert {
+    /**
+     * for coding style
+     */
+    private Assert() {
+    }
+
+    /**
+     * Fails the test if a condition does not hold
+     *
+     * @param condition given condition
+     * @param message   what has been checked
+     */
+    public static void check(final boolean condition, final String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Fails the test if two values are not equal
+     *
+     * @param expected expected value
+     * @param actual   actual value
+     * @param message  what has been checked
+     */
+    public static void checkEquals(final Object expected, final Object actual,
+                                   final String message) {
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError(message + ": expected " + expected + ", got " + actual);
+        }
+    }
+
+    /**
+     * Fails the test if the code does not throw an exception of the given type
+     *
+     * @param type    expected exception type
+     * @param test    code that should throw
+     * @param message what has been checked
+     * @return the thrown exception
+     */
+    public static <T extends Exception> T checkThrows(final Class<T> type, final UnitTest test,
+                                                      final String message) {
+        try {
+            test.run();
+        } catch (Exception e) {
+            if (type.isInstance(e)) {
+                return type.cast(e);
+            }
+            throw new AssertionError(message + ": unexpected " + e, e);
+        }
+
+        throw new AssertionError(message + ": nothing thrown");
+    }
+}
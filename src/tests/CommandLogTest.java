@@ -0,0 +1,297 @@
+package tests;
+
+import actions.Command;
+import common.Constants;
+import entertainment.Serial;
+import fileio.ActionInputData;
+import fileio.JacksonInputLoader;
+import fileio.Writer;
+import main.CommandLog;
+import main.Database;
+import main.DatabaseSnapshot;
+import main.VideosDB;
+import org.json.simple.JSONArray;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Tests of CommandLog: the commands of the committed groups are executed again when the log is
+ * opened over the database it has been started from, the uncommitted records are dropped and
+ * a checkpoint empties the log
+ */
+public final class CommandLogTest {
+    private static final String INPUT = "single_command_rating_show.json";
+    private static final String USER = "mereZebra9";
+    private static final String SERIAL = "The Dragon Prince";
+    private static final int MISSING_SEASON = 99;
+    private static final double GRADE = 7;
+    private static final int GROUP_SIZE = 4;
+    private static final int FIRST_VIEWS = 3;
+    private static final int LAST_VIEWS = 5;
+    private static final int LOG_HEADER_SIZE = Long.BYTES;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    /**
+     * for coding style
+     */
+    private CommandLogTest() {
+    }
+
+    /**
+     * Adds the tests of this class
+     *
+     * @param tests tests by name
+     */
+    public static void addTo(final Map<String, UnitTest> tests) {
+        tests.put("CommandLog: invalid commands", CommandLogTest::invalidCommands);
+        tests.put("CommandLog: failing logged command", CommandLogTest::failingLoggedCommand);
+        tests.put("CommandLog: append and replay", CommandLogTest::appendAndReplay);
+        tests.put("CommandLog: uncommitted group", CommandLogTest::uncommittedGroup);
+        tests.put("CommandLog: damaged committed group", CommandLogTest::damagedCommittedGroup);
+        tests.put("CommandLog: checkpoint", CommandLogTest::checkpoint);
+        tests.put("CommandLog: snapshot with the log open", CommandLogTest::openSnapshot);
+    }
+
+    private static void invalidCommands() throws IOException {
+        Path directory = Files.createTempDirectory("commands");
+        Path logPath = directory.resolve("commands.log");
+        Writer writer = new Writer(directory.resolve("results.json").toString());
+
+        try {
+            Database database = load();
+            CommandLog log = CommandLog.open(logPath, database, writer, 1, 0);
+            long emptySize = Files.size(logPath);
+
+            Assert.checkThrows(IndexOutOfBoundsException.class, () -> Command.execute(database,
+                    rating(MISSING_SEASON), writer), "rating of a missing season");
+            Command.execute(database, command(Constants.VIEW_COMMAND, "unknownUser", SERIAL),
+                    writer);
+            Command.execute(database, command(Constants.VIEW_COMMAND, USER, "Unknown Title"),
+                    writer);
+            log.close();
+
+            Assert.checkEquals(emptySize, Files.size(logPath), "size of the log");
+        } finally {
+            writer.closeJSON(new JSONArray());
+            delete(directory);
+        }
+    }
+
+    private static void failingLoggedCommand() throws IOException {
+        Path directory = Files.createTempDirectory("commands");
+        Path logPath = directory.resolve("commands.log");
+        Writer writer = new Writer(directory.resolve("results.json").toString());
+
+        try {
+            // O comanda scrisa in jurnal inainte ca ea sa fie verificata
+            Database database = load();
+            CommandLog log = CommandLog.open(logPath, database, writer, 1, 0);
+            log.append(rating(MISSING_SEASON));
+            Command.execute(database, rating(1), writer);
+            log.close();
+
+            Database restarted = load();
+            CommandLog.open(logPath, restarted, writer, 1, 0).close();
+
+            Serial serial = (Serial) restarted.getVideo(SERIAL);
+            int user = restarted.getUserIds().getId(USER);
+            Assert.check(serial.getSeason(0).isRatedByUser(user), "rating after the failing one");
+        } finally {
+            writer.closeJSON(new JSONArray());
+            delete(directory);
+        }
+    }
+
+    private static void appendAndReplay() throws IOException {
+        Path directory = Files.createTempDirectory("commands");
+        Path logPath = directory.resolve("commands.log");
+        Writer writer = new Writer(directory.resolve("results.json").toString());
+
+        try {
+            Database database = load();
+            CommandLog log = CommandLog.open(logPath, database, writer, GROUP_SIZE, 0);
+            view(database, writer, FIRST_VIEWS + LAST_VIEWS);
+            Command.execute(database, rating(1), writer);
+            log.close();
+            int commands = FIRST_VIEWS + LAST_VIEWS + 1;
+            Assert.checkEquals((long) (commands + GROUP_SIZE - 1) / GROUP_SIZE, log.getCommits(),
+                    "commits of the full groups and of the last one");
+
+            Database restarted = load();
+            CommandLog.open(logPath, restarted, writer, GROUP_SIZE, 0).close();
+            Assert.checkEquals(views(database), views(restarted), "views after replay");
+            Assert.check(((Serial) restarted.getVideo(SERIAL)).getSeason(0)
+                    .isRatedByUser(restarted.getUserIds().getId(USER)), "rating after replay");
+        } finally {
+            writer.closeJSON(new JSONArray());
+            delete(directory);
+        }
+    }
+
+    private static void uncommittedGroup() throws IOException {
+        Path directory = Files.createTempDirectory("commands");
+        Path logPath = directory.resolve("commands.log");
+        Writer writer = new Writer(directory.resolve("results.json").toString());
+
+        try {
+            Database database = load();
+            int initialViews = views(database);
+            CommandLog log = CommandLog.open(logPath, database, writer, Integer.MAX_VALUE, 0);
+            view(database, writer, FIRST_VIEWS);
+            log.commit();
+            long committed = Files.size(logPath);
+            view(database, writer, LAST_VIEWS);
+            log.close();
+
+            // Prima inregistrare a grupului neconfirmat este rupta, cele de dupa ea sunt intacte
+            damage(logPath, committed + HEADER_SIZE);
+
+            Database restarted = load();
+            CommandLog.open(logPath, restarted, writer, 1, 0).close();
+            Assert.checkEquals(initialViews + FIRST_VIEWS, views(restarted),
+                    "views of the committed group");
+            Assert.checkEquals(committed, Files.size(logPath), "log cut to the last commit");
+        } finally {
+            writer.closeJSON(new JSONArray());
+            delete(directory);
+        }
+    }
+
+    private static void damagedCommittedGroup() throws IOException {
+        Path directory = Files.createTempDirectory("commands");
+        Path logPath = directory.resolve("commands.log");
+        Writer writer = new Writer(directory.resolve("results.json").toString());
+
+        try {
+            Database database = load();
+            CommandLog log = CommandLog.open(logPath, database, writer, FIRST_VIEWS, 0);
+            view(database, writer, FIRST_VIEWS * 2);
+            log.close();
+            long size = Files.size(logPath);
+
+            damage(logPath, LOG_HEADER_SIZE + HEADER_SIZE);
+
+            Assert.checkThrows(IOException.class, () -> CommandLog.open(logPath, load(), writer,
+                    1, 0), "damaged record before a committed group");
+            Assert.checkEquals(size, Files.size(logPath), "size of the damaged log");
+        } finally {
+            writer.closeJSON(new JSONArray());
+            delete(directory);
+        }
+    }
+
+    private static void checkpoint() throws IOException {
+        Path directory = Files.createTempDirectory("commands");
+        Path logPath = directory.resolve("commands.log");
+        Path snapshot = directory.resolve("database.snapshot");
+        Writer writer = new Writer(directory.resolve("results.json").toString());
+
+        try {
+            Database database = load();
+            CommandLog log = CommandLog.open(logPath, database, writer, 1, 0);
+            view(database, writer, FIRST_VIEWS);
+            byte[] beforeCheckpoint = Files.readAllBytes(logPath);
+            int checkpointViews = views(database);
+
+            log.checkpoint(snapshot);
+            Assert.checkEquals((long) LOG_HEADER_SIZE, Files.size(logPath), "emptied log");
+            view(database, writer, LAST_VIEWS);
+            log.close();
+
+            Database restored = DatabaseSnapshot.read(snapshot);
+            CommandLog.open(logPath, restored, writer, 1, 0).close();
+            Assert.checkEquals(views(database), views(restored), "views after the checkpoint");
+
+            Assert.checkThrows(IOException.class, () -> CommandLog.open(logPath, load(), writer,
+                    1, 0), "log of a checkpoint opened over the input");
+
+            // Cadere intre scrierea snapshot-ului si golirea jurnalului
+            Files.write(logPath, beforeCheckpoint);
+            Database interrupted = DatabaseSnapshot.read(snapshot);
+            CommandLog.open(logPath, interrupted, writer, 1, 0).close();
+            Assert.checkEquals(checkpointViews, views(interrupted),
+                    "views after an interrupted checkpoint");
+            Assert.checkEquals((long) LOG_HEADER_SIZE, Files.size(logPath),
+                    "log of an interrupted checkpoint");
+        } finally {
+            writer.closeJSON(new JSONArray());
+            delete(directory);
+        }
+    }
+
+    private static void openSnapshot() throws IOException {
+        Path directory = Files.createTempDirectory("commands");
+        Path logPath = directory.resolve("commands.log");
+        Path snapshot = directory.resolve("database.snapshot");
+        Writer writer = new Writer(directory.resolve("results.json").toString());
+
+        try {
+            Database database = load();
+            CommandLog log = CommandLog.open(logPath, database, writer, Integer.MAX_VALUE, 0);
+            view(database, writer, FIRST_VIEWS);
+            DatabaseSnapshot.write(database, snapshot);
+            view(database, writer, LAST_VIEWS);
+            log.close();
+
+            // Snapshot-ul pastreaza pozitia jurnalului: comenzile lui nu sunt executate de doua ori
+            Database restored = DatabaseSnapshot.read(snapshot);
+            CommandLog.open(logPath, restored, writer, 1, 0).close();
+            Assert.checkEquals(views(database), views(restored), "views over the snapshot");
+
+            Database restarted = load();
+            CommandLog.open(logPath, restarted, writer, 1, 0).close();
+            Assert.checkEquals(views(database), views(restarted), "views over the input");
+        } finally {
+            writer.closeJSON(new JSONArray());
+            delete(directory);
+        }
+    }
+
+    private static void view(final Database database, final Writer writer, final int count) {
+        for (int i = 0; i < count; i++) {
+            Command.execute(database, command(Constants.VIEW_COMMAND, USER, SERIAL), writer);
+        }
+    }
+
+    private static int views(final Database database) {
+        return database.getVideo(SERIAL).getUsersViews(database.getUserIds().getId(USER));
+    }
+
+    /**
+     * Flips a byte of a file
+     */
+    private static void damage(final Path path, final long position) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[(int) position] ^= 1;
+        Files.write(path, bytes);
+    }
+
+    private static Database load() {
+        VideosDB videosDB = new VideosDB();
+        videosDB.readDB(new JacksonInputLoader(Constants.TESTS_PATH + INPUT).readData());
+
+        return videosDB.getDatabase();
+    }
+
+    private static ActionInputData rating(final int season) {
+        return new ActionInputData(1, Constants.COMMAND, Constants.RATING_COMMAND, USER, SERIAL,
+                GRADE, season);
+    }
+
+    private static ActionInputData command(final String type, final String username,
+                                           final String title) {
+        return new ActionInputData(1, Constants.COMMAND, type, username, title, 0.0, 0);
+    }
+
+    private static void delete(final Path directory) throws IOException {
+        for (File file : Objects.requireNonNull(directory.toFile().listFiles())) {
+            Files.delete(file.toPath());
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,182 @@
+package tests;
+
+import actor.Actor;
+import actor.ActorsAwards;
+import common.Constants;
+import common.RoaringBitmap;
+import fileio.ActionInputData;
+import fileio.ActorInputData;
+import fileio.Input;
+import fileio.JacksonInputLoader;
+import fileio.Writer;
+import main.Database;
+import main.DatabaseSnapshot;
+import main.VideosDB;
+import org.json.simple.JSONArray;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+
+/**
+ * Round trips through DatabaseSnapshot: the actions of an input give the same results over the
+ * database read from the input and over the database restored from its snapshot
+ */
+public final class DatabaseSnapshotTest {
+    /**
+     * Size of the part of the file DatabaseSnapshot maps at once
+     */
+    private static final long WINDOW_SIZE = 1L << 26;
+    private static final String TEMPLATE = "large_test_no_1.json";
+    private static final String UNKNOWN_AWARDS = "single_query_awards_unknown.json";
+    private static final String UNKNOWN_AWARD = "BEST_STUNTS";
+    private static final int LARGE_ACTORS = 48;
+    private static final int DESCRIPTION_WORDS = 220_000;
+    private static final String[] WORDS = {"actor", "award", "director", "stage", "screen"};
+
+    /**
+     * for coding style
+     */
+    private DatabaseSnapshotTest() {
+    }
+
+    /**
+     * Adds the tests of this class
+     *
+     * @param tests tests by name
+     */
+    public static void addTo(final Map<String, UnitTest> tests) {
+        tests.put("DatabaseSnapshot: test inputs", DatabaseSnapshotTest::testInputs);
+        tests.put("DatabaseSnapshot: unknown awards", DatabaseSnapshotTest::unknownAwards);
+        tests.put("DatabaseSnapshot: several windows", DatabaseSnapshotTest::severalWindows);
+    }
+
+    private static void testInputs() throws IOException {
+        File[] files = Objects.requireNonNull(new File(Constants.TESTS_PATH).listFiles());
+        Arrays.sort(files);
+
+        for (File file : files) {
+            roundTrip(file.getName(), new JacksonInputLoader(file.getAbsolutePath()).readData());
+        }
+    }
+
+    private static void unknownAwards() throws IOException {
+        Input input = new JacksonInputLoader(Constants.TESTS_PATH + UNKNOWN_AWARDS).readData();
+        VideosDB videosDB = new VideosDB();
+        videosDB.readDB(input);
+        Database database = videosDB.getDatabase();
+
+        Path snapshot = Files.createTempFile("database", ".snapshot");
+        try {
+            DatabaseSnapshot.write(database, snapshot);
+            Database restored = DatabaseSnapshot.read(snapshot);
+
+            RoaringBitmap unknown = database.getActorsWithAward(null);
+            Assert.check(!unknown.isEmpty(), "actors with unknown awards in the input");
+            Assert.checkEquals(values(unknown), values(restored.getActorsWithAward(null)),
+                    "actors with unknown awards");
+
+            for (Actor actor : database.getActors().values()) {
+                Actor restoredActor = restored.getActors().get(actor.getId());
+
+                Assert.checkEquals(actor.getAwards(), restoredActor.getAwards(),
+                        actor.getName() + " awards");
+                Assert.checkEquals(actor.getAwardsCount(), restoredActor.getAwardsCount(),
+                        actor.getName() + " awards count");
+            }
+        } finally {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    private static void severalWindows() throws IOException {
+        Input template = new JacksonInputLoader(Constants.TESTS_PATH + TEMPLATE).readData();
+
+        // Actori cu descrieri lungi, ca snapshot-ul sa depaseasca o fereastra mapata
+        List<ActorInputData> actors = new ArrayList<>(template.getActors());
+        for (int i = 0; i < LARGE_ACTORS; i++) {
+            StringBuilder description = new StringBuilder();
+            for (int j = 0; j < DESCRIPTION_WORDS; j++) {
+                description.append(WORDS[(i * j + j / WORDS.length) % WORDS.length]).append(' ');
+            }
+
+            Map<ActorsAwards, Integer> awards = new HashMap<>();
+            awards.put(ActorsAwards.values()[i % ActorsAwards.values().length], i + 1);
+            if (i % 2 == 0) {
+                awards.put(null, i + 1);
+            }
+
+            actors.add(new ActorInputData("Large Actor " + i, description.toString(),
+                    new ArrayList<>(), awards));
+        }
+
+        List<ActionInputData> actions = new ArrayList<>(template.getCommands());
+        int id = actions.size();
+        for (String word : WORDS) {
+            actions.add(new ActionInputData(++id, Constants.QUERY, Constants.ACTORS, null,
+                    Constants.ASC_SORTING, Constants.FILTER_DESCRIPTIONS, null, 0,
+                    Collections.singletonList(word), null));
+        }
+        actions.add(new ActionInputData(++id, Constants.QUERY, Constants.ACTORS, null,
+                Constants.DESC_SORTING, Constants.AWARDS, null, 0, null,
+                Collections.singletonList(UNKNOWN_AWARD)));
+
+        Input input = new Input(actors, template.getUsers(), actions, template.getMovies(),
+                template.getSerials());
+        long size = roundTrip("large actors", input);
+
+        Assert.check(size > WINDOW_SIZE, "snapshot of " + size + " bytes, larger than a window");
+    }
+
+    /**
+     * Executes the actions of an input over the database read from the input and over the
+     * database restored from its snapshot and compares the results
+     *
+     * @return size of the snapshot
+     */
+    private static long roundTrip(final String name, final Input input) throws IOException {
+        VideosDB loaded = new VideosDB();
+        loaded.readDB(input);
+
+        Path snapshot = Files.createTempFile("database", ".snapshot");
+        Path output = Files.createTempFile("results", ".json");
+        try {
+            DatabaseSnapshot.write(loaded.getDatabase(), snapshot);
+            VideosDB restored = new VideosDB(DatabaseSnapshot.read(snapshot), null);
+
+            Writer writer = new Writer(output.toString());
+            JSONArray expected = loaded.execute(input, writer);
+            JSONArray actual = restored.execute(input, writer);
+            writer.closeJSON(new JSONArray());
+
+            Assert.check(!expected.isEmpty(), name + ": no results");
+            Assert.checkEquals(expected.toJSONString(), actual.toJSONString(),
+                    name + ": results over the restored database");
+
+            return Files.size(snapshot);
+        } finally {
+            Files.deleteIfExists(snapshot);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    private static List<Integer> values(final RoaringBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        PrimitiveIterator.OfInt iterator = bitmap.iterator();
+
+        while (iterator.hasNext()) {
+            values.add(iterator.nextInt());
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,215 @@
+package tests;
+
+import common.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+/**
+ * Tests of RoaringBitmap, checked against a BitSet: the limit between array and bitmap chunks,
+ * the limits of the chunks, removals and and / andNot between chunks of every kind
+ */
+public final class RoaringBitmapTest {
+    /**
+     * Most values an array chunk keeps before it becomes a bitmap
+     */
+    private static final int MAX_ARRAY_SIZE = 4096;
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int CHUNKS = 4;
+    private static final int SPARSE_VALUES = 100;
+    private static final int STEP = 3;
+    private static final long SEED = 5;
+
+    /**
+     * for coding style
+     */
+    private RoaringBitmapTest() {
+    }
+
+    /**
+     * Adds the tests of this class
+     *
+     * @param tests tests by name
+     */
+    public static void addTo(final Map<String, UnitTest> tests) {
+        tests.put("RoaringBitmap: array chunk limit", RoaringBitmapTest::arrayChunkLimit);
+        tests.put("RoaringBitmap: chunk limits", RoaringBitmapTest::chunkLimits);
+        tests.put("RoaringBitmap: removals", RoaringBitmapTest::removals);
+        tests.put("RoaringBitmap: and / andNot", RoaringBitmapTest::mixedChunks);
+    }
+
+    private static void arrayChunkLimit() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        BitSet expected = new BitSet();
+
+        // Valori descrescatoare: fiecare este inserata la inceputul sirului
+        for (int value = MAX_ARRAY_SIZE * 2; value > MAX_ARRAY_SIZE; value--) {
+            bitmap.add(value);
+            expected.set(value);
+        }
+        checkSame(expected, bitmap, "array chunk with " + MAX_ARRAY_SIZE + " values");
+
+        bitmap.add(0);
+        expected.set(0);
+        checkSame(expected, bitmap, "bitmap chunk with " + (MAX_ARRAY_SIZE + 1) + " values");
+
+        bitmap.add(0);
+        checkSame(expected, bitmap, "value added twice");
+
+        bitmap.remove(MAX_ARRAY_SIZE * 2);
+        expected.clear(MAX_ARRAY_SIZE * 2);
+        checkSame(expected, bitmap, "bitmap chunk back to an array");
+
+        bitmap.add(MAX_ARRAY_SIZE * 2);
+        expected.set(MAX_ARRAY_SIZE * 2);
+        checkSame(expected, bitmap, "array chunk again a bitmap");
+    }
+
+    private static void chunkLimits() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        BitSet expected = new BitSet();
+        int[] values = {CHUNK_SIZE * 2, CHUNK_SIZE - 1, 0, CHUNK_SIZE, CHUNK_SIZE * 2 - 1,
+            Integer.MAX_VALUE};
+
+        for (int value : values) {
+            bitmap.add(value);
+            expected.set(value);
+        }
+        checkSame(expected, bitmap, "values at the limits of the chunks");
+
+        // Ultimul chunk este plin: iteratorul trece de la valoarea 65535 la chunk-ul urmator
+        for (int value = 0; value < CHUNK_SIZE; value++) {
+            bitmap.add(CHUNK_SIZE + value);
+            expected.set(CHUNK_SIZE + value);
+        }
+        checkSame(expected, bitmap, "full chunk");
+
+        Assert.check(!bitmap.contains(-1), "negative value");
+        Assert.check(!bitmap.contains(CHUNK_SIZE * CHUNKS), "value without a chunk");
+    }
+
+    private static void removals() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        BitSet expected = new BitSet();
+
+        for (int value = 0; value < CHUNK_SIZE * 2; value += STEP) {
+            bitmap.add(value);
+            expected.set(value);
+        }
+        bitmap.remove(1);
+        bitmap.remove(CHUNK_SIZE * CHUNKS);
+        checkSame(expected, bitmap, "removal of missing values");
+
+        for (int value = 0; value < CHUNK_SIZE; value += STEP) {
+            bitmap.remove(value);
+            expected.clear(value);
+        }
+        checkSame(expected, bitmap, "first chunk emptied");
+
+        for (int value = CHUNK_SIZE + 1; value < CHUNK_SIZE * 2; value += STEP) {
+            bitmap.remove(value);
+            expected.clear(value);
+        }
+        checkSame(expected, bitmap, "removal down from a bitmap chunk");
+
+        for (int value = expected.nextSetBit(0); value >= 0;
+             value = expected.nextSetBit(value + 1)) {
+            bitmap.remove(value);
+        }
+        Assert.check(bitmap.isEmpty(), "empty after removing every value");
+        Assert.checkEquals(0, bitmap.cardinality(), "cardinality of the empty bitmap");
+        Assert.check(!bitmap.iterator().hasNext(), "iterator of the empty bitmap");
+    }
+
+    private static void mixedChunks() {
+        Random random = new Random(SEED);
+        BitSet[] sets = new BitSet[2];
+        RoaringBitmap[] bitmaps = new RoaringBitmap[2];
+
+        // Fiecare bitmap are chunk-uri rare si dese, iar unele chunk-uri lipsesc din celalalt
+        for (int i = 0; i < 2; i++) {
+            sets[i] = new BitSet();
+            bitmaps[i] = new RoaringBitmap();
+
+            for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                if (chunk == CHUNKS - 1 - i) {
+                    continue;
+                }
+
+                boolean dense = (chunk + i) % 2 == 0;
+                int count = dense ? MAX_ARRAY_SIZE * 2 : SPARSE_VALUES;
+                for (int j = 0; j < count; j++) {
+                    int value = chunk * CHUNK_SIZE + random.nextInt(CHUNK_SIZE);
+                    sets[i].set(value);
+                    bitmaps[i].add(value);
+                }
+            }
+        }
+
+        for (int i = 0; i < 2; i++) {
+            BitSet and = (BitSet) sets[i].clone();
+            and.and(sets[1 - i]);
+            checkSame(and, bitmaps[i].and(bitmaps[1 - i]), "and " + i);
+
+            BitSet andNot = (BitSet) sets[i].clone();
+            andNot.andNot(sets[1 - i]);
+            checkSame(andNot, bitmaps[i].andNot(bitmaps[1 - i]), "andNot " + i);
+
+            checkSame(sets[i], bitmaps[i].and(bitmaps[i]), "and with itself " + i);
+            Assert.check(bitmaps[i].andNot(bitmaps[i]).isEmpty(), "andNot with itself " + i);
+        }
+
+        // Un chunk dens din care raman putine valori devine un sir si poate creste din nou
+        RoaringBitmap dense = new RoaringBitmap();
+        RoaringBitmap almostAll = new RoaringBitmap();
+        BitSet expected = new BitSet();
+        for (int value = 0; value < CHUNK_SIZE; value++) {
+            dense.add(value);
+            if (value % MAX_ARRAY_SIZE != 0) {
+                almostAll.add(value);
+            } else {
+                expected.set(value);
+            }
+        }
+        RoaringBitmap rest = dense.andNot(almostAll);
+        checkSame(expected, rest, "sparse rest of a dense chunk");
+
+        for (int value = 1; value <= MAX_ARRAY_SIZE; value++) {
+            rest.add(value);
+            expected.set(value);
+        }
+        checkSame(expected, rest, "rest grown back into a bitmap");
+    }
+
+    /**
+     * Checks that a bitmap has the values of a BitSet, in ascending order
+     */
+    private static void checkSame(final BitSet expected, final RoaringBitmap bitmap,
+                                  final String message) {
+        List<Integer> expectedValues = new ArrayList<>();
+        for (int value = expected.nextSetBit(0); value >= 0;
+             value = expected.nextSetBit(value + 1)) {
+            expectedValues.add(value);
+            if (value == Integer.MAX_VALUE) {
+                break;
+            }
+        }
+
+        List<Integer> values = new ArrayList<>();
+        PrimitiveIterator.OfInt iterator = bitmap.iterator();
+        while (iterator.hasNext()) {
+            values.add(iterator.nextInt());
+        }
+
+        Assert.checkEquals(expectedValues, values, message + ", values");
+        Assert.checkEquals(expectedValues.size(), bitmap.cardinality(), message + ", cardinality");
+        Assert.checkEquals(expectedValues.isEmpty(), bitmap.isEmpty(), message + ", empty");
+        for (int value : expectedValues) {
+            Assert.check(bitmap.contains(value), message + ", contains " + value);
+        }
+    }
+}
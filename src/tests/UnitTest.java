@@ -0,0 +1,14 @@
+package tests;
+
+/**
+ * A unit test; it fails by throwing an exception or an AssertionError
+ */
+@FunctionalInterface
+public interface UnitTest {
+    /**
+     * Runs the test
+     *
+     * @throws Exception in case of errors of the tested code
+     */
+    void run() throws Exception;
+}
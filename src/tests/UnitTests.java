@@ -0,0 +1,61 @@
+package tests;
+
+import common.Constants;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs the unit tests of the structures the input tests reach only indirectly (bitmaps,
+ * snapshots, the command log) and prints their results like the checker
+ */
+public final class UnitTests {
+    /**
+     * for coding style
+     */
+    private UnitTests() {
+    }
+
+    /**
+     * @param args unused
+     */
+    public static void main(final String[] args) {
+        if (!runAll()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs every unit test
+     *
+     * @return if all the tests have passed
+     */
+    public static boolean runAll() {
+        Map<String, UnitTest> tests = new LinkedHashMap<>();
+        RoaringBitmapTest.addTo(tests);
+        VideoGenresTest.addTo(tests);
+        DatabaseSnapshotTest.addTo(tests);
+        CommandLogTest.addTo(tests);
+
+        int passed = 0;
+        for (Map.Entry<String, UnitTest> test : tests.entrySet()) {
+            char[] chars = new char[Math.max(1, Constants.MAX_LENGTH - test.getKey().length())];
+            Arrays.fill(chars, ' ');
+            String s = new String(chars);
+
+            try {
+                test.getValue().run();
+                System.out.println(test.getKey() + s + "PASSED");
+                passed++;
+            } catch (Exception | AssertionError e) {
+                System.out.println(test.getKey() + s + "FAILED (" + e + ")");
+            }
+        }
+
+        System.out.println("-----------------------------");
+        System.out.println("UNIT TESTS = " + passed + "/" + tests.size());
+
+        return passed == tests.size();
+    }
+}
@@ -0,0 +1,80 @@
+package tests;
+
+import entertainment.Genre;
+import entertainment.Movie;
+import entertainment.Video;
+import utils.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests of the genre checks of Video, on single genres and on AND / OR predicates over several
+ * genres, including the genres without a Genre value
+ */
+public final class VideoGenresTest {
+    private static final int RELEASE_YEAR = 2000;
+    private static final int DURATION = 90;
+
+    /**
+     * for coding style
+     */
+    private VideoGenresTest() {
+    }
+
+    /**
+     * Adds the tests of this class
+     *
+     * @param tests tests by name
+     */
+    public static void addTo(final Map<String, UnitTest> tests) {
+        tests.put("Video: single genre", VideoGenresTest::singleGenre);
+        tests.put("Video: all genres", VideoGenresTest::allGenres);
+        tests.put("Video: any genre", VideoGenresTest::anyGenre);
+    }
+
+    private static void singleGenre() {
+        Video video = movie(Genre.DRAMA, Genre.WESTERN);
+
+        Assert.check(video.hasGenre(Genre.DRAMA), "first genre");
+        Assert.check(video.hasGenre(Genre.WESTERN), "last genre");
+        Assert.check(!video.hasGenre(Genre.COMEDY), "missing genre");
+        Assert.check(!video.hasGenre(null), "no unmapped genre");
+        Assert.check(movie(Genre.DRAMA, null).hasGenre(null), "unmapped genre");
+    }
+
+    private static void allGenres() {
+        Video video = movie(Genre.DRAMA, Genre.CRIME, null);
+
+        Assert.check(video.hasAllGenres(mask(Genre.DRAMA, Genre.CRIME)), "both genres");
+        Assert.check(video.hasAllGenres(mask(Genre.CRIME, null)), "with the unmapped genre");
+        Assert.check(!video.hasAllGenres(mask(Genre.DRAMA, Genre.COMEDY)), "one missing genre");
+        Assert.check(video.hasAllGenres(mask()), "no genres");
+        Assert.check(!movie(Genre.DRAMA).hasAllGenres(mask(Genre.DRAMA, null)),
+                "missing unmapped genre");
+    }
+
+    private static void anyGenre() {
+        Video video = movie(Genre.DRAMA, Genre.CRIME);
+
+        Assert.check(video.hasAnyGenre(mask(Genre.COMEDY, Genre.CRIME)), "one common genre");
+        Assert.check(!video.hasAnyGenre(mask(Genre.COMEDY, Genre.HORROR)), "no common genre");
+        Assert.check(!video.hasAnyGenre(mask()), "no genres");
+        Assert.check(!video.hasAnyGenre(mask((Genre) null)), "missing unmapped genre");
+        Assert.check(movie((Genre) null).hasAnyGenre(mask(Genre.COMEDY, null)), "unmapped genre");
+    }
+
+    private static Video movie(final Genre... genres) {
+        return new Movie(0, "title", RELEASE_YEAR, new ArrayList<>(Arrays.asList(genres)),
+                new ArrayList<>(Collections.emptyList()), DURATION);
+    }
+
+    private static long mask(final Genre... genres) {
+        List<Genre> list = Arrays.asList(genres);
+
+        return Utils.genresToMask(list);
+    }
+}
@@ -1,34 +1,51 @@
 package user;
 
+import common.RoaringBitmap;
 import fileio.UserInputData;
 import utils.Utils;
 
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 public class User {
+    private int id;
     private String username;
     private UserType userType;
 
-    private ArrayList<String> favoriteVideos;
-    private ArrayList<String> viewedVideos;
+    private LinkedHashSet<Integer> favoriteVideos;
+    private RoaringBitmap viewedVideos;
 
     public User(
+            final int id,
             final String username,
             final UserType userType,
-            final ArrayList<String> favoriteVideos) {
+            final List<Integer> favoriteVideos) {
+        this.id = id;
         this.username = username;
         this.userType = userType;
 
-        this.favoriteVideos = new ArrayList<String>(favoriteVideos);
+        this.favoriteVideos = new LinkedHashSet<>(favoriteVideos);
 
-        viewedVideos = new ArrayList<>();
+        viewedVideos = new RoaringBitmap();
     }
 
-    public User(final UserInputData userInput) {
+    public User(final int id,
+                final UserInputData userInput,
+                final List<Integer> favoriteVideos) {
         this(
+                id,
                 userInput.getUsername(),
                 Utils.stringToUserType(userInput.getSubscriptionType()),
-                userInput.getFavoriteMovies());
+                favoriteVideos);
+    }
+
+    /**
+     * Gets the user's id
+     *
+     * @return id of user
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -40,34 +57,60 @@ public class User {
         return username;
     }
 
+    /**
+     * Gets the user's subscription type
+     *
+     * @return user type
+     */
+    public UserType getUserType() {
+        return userType;
+    }
+
     /**
      * Adds a movie as favorite if it is not already
      *
-     * @param movieTitle movie title
+     * @param videoId video id
+     * @return if the video has been added
      */
-    public void addFavorite(final String movieTitle) {
-        if (!favoriteVideos.contains(movieTitle)) {
-            favoriteVideos.add(movieTitle);
-        }
+    public boolean addFavorite(final int videoId) {
+        return favoriteVideos.add(videoId);
     }
 
     /**
-     * Retrieves favorite videos list
+     * Retrieves favorite videos, in the order they have been added
      *
-     * @return list of favorite videos titles
+     * @return set of favorite videos ids
      */
-    public ArrayList<String> getFavoriteVideos() {
+    public LinkedHashSet<Integer> getFavoriteVideos() {
         return favoriteVideos;
     }
 
     /**
      * Get if user has the given movie as favorite
      *
-     * @param movieTitle given movie
+     * @param videoId given video id
      * @return is favorite
      */
-    public boolean hasFavoriteMovie(final String movieTitle) {
-        return favoriteVideos.contains(movieTitle);
+    public boolean hasFavoriteMovie(final int videoId) {
+        return favoriteVideos.contains(videoId);
+    }
+
+    /**
+     * Marks a video as viewed by the user
+     *
+     * @param videoId video id
+     */
+    public void addViewedVideo(final int videoId) {
+        viewedVideos.add(videoId);
+    }
+
+    /**
+     * Retrieves the ids of the videos viewed by the user
+     *
+     * @return bitmap of viewed videos ids
+     */
+    public RoaringBitmap getViewedVideos() {
+        return viewedVideos;
     }
 
     /**
@@ -2,12 +2,15 @@ package utils;
 
 import actor.ActorsAwards;
 import common.Constants;
+import common.EntityWithSortingCriteria;
 import entertainment.Genre;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import user.UserType;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.LinkedHashMap;
 
@@ -17,6 +20,11 @@ import java.util.LinkedHashMap;
  * We suggest you add your static methods here or in a similar class.
  */
 public final class Utils {
+    /**
+     * Bit set in a genres bitmask when the video has a genre string without a Genre value
+     */
+    public static final long UNMAPPED_GENRE_BIT = Long.MIN_VALUE;
+
     /**
      * for coding style
      */
@@ -54,6 +62,34 @@ public final class Utils {
         };
     }
 
+    /**
+     * Transforms a genre into its bit from a genres bitmask
+     * @param genre of video, null for a genre string stringToGenre does not map
+     * @return bit of the genre or UNMAPPED_GENRE_BIT for null
+     */
+    public static long genreToBit(final Genre genre) {
+        if (genre == null) {
+            return UNMAPPED_GENRE_BIT;
+        }
+
+        return 1L << genre.ordinal();
+    }
+
+    /**
+     * Transforms a collection of genres into a bitmask
+     * @param genres of video
+     * @return a bitmask with the bit of every genre set
+     */
+    public static long genresToMask(final Collection<Genre> genres) {
+        long mask = 0;
+
+        for (Genre genre : genres) {
+            mask |= genreToBit(genre);
+        }
+
+        return mask;
+    }
+
     /**
      * Transforms a string into an enum
      * @param userType of user
@@ -83,6 +119,19 @@ public final class Utils {
         };
     }
 
+    /**
+     * Transforms a sort type into the order of the query results
+     * @param sortType ascending or descending
+     * @return order of the results or null if the results are not sorted
+     */
+    public static Comparator<EntityWithSortingCriteria> sortingOrder(final String sortType) {
+        return switch (sortType) {
+            case Constants.ASC_SORTING -> Comparator.naturalOrder();
+            case Constants.DESC_SORTING -> Comparator.reverseOrder();
+            default -> null;
+        };
+    }
+
     /**
      * Transforms an array of JSON's into an array of strings
      * @param array of JSONs